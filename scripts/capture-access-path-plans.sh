@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+PHASE=${1:?usage: $0 before|after}
+DATABASE=${DATABASE:-doctor_visit_tracking}
+BENCHMARK_DIR=$(dirname "$0")/../src/test/resources/benchmark
+OUTPUT="$BENCHMARK_DIR/access-path-query-plans.$PHASE.txt"
+
+case "$PHASE" in
+    before) expected_version=3 ;;
+    after) expected_version=4 ;;
+    *) echo "unknown phase '$PHASE', expected before or after" >&2; exit 1 ;;
+esac
+
+version=$(mysql ${MYSQL_ARGS:-} --batch --skip-column-names "$DATABASE" -e \
+    "SELECT MAX(CAST(version AS UNSIGNED)) FROM flyway_schema_history WHERE success = 1")
+if [ "$version" != "$expected_version" ]; then
+    echo "schema is at V$version, the $PHASE capture needs V$expected_version" \
+        "(migrate with spring.flyway.target=$expected_version)" >&2
+    exit 1
+fi
+patients=$(mysql ${MYSQL_ARGS:-} --batch --skip-column-names "$DATABASE" -e "SELECT COUNT(*) FROM patients")
+
+{
+    echo "-- $PHASE V4__add_access_path_indexes.sql, schema V$version, $patients patients"
+    echo "-- captured $(date -u +%Y-%m-%dT%H:%M:%SZ) on $(mysql ${MYSQL_ARGS:-} --batch --skip-column-names \
+        -e 'SELECT VERSION()')"
+    mysql ${MYSQL_ARGS:-} --table --comments --force -vvv "$DATABASE" \
+        < "$BENCHMARK_DIR/access-path-query-plans.sql" 2>&1
+} > "$OUTPUT"
+echo "wrote $OUTPUT"
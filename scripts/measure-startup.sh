@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+IMAGE=${IMAGE:-doctorvisittracking}
+RUNS=${RUNS:-5}
+PROFILES=${PROFILES:-fast-start}
+BUDGET_SECONDS=${BUDGET_SECONDS:-10}
+START_TIMEOUT_SECONDS=${START_TIMEOUT_SECONDS:-120}
+
+times=()
+for run in $(seq "$RUNS"); do
+    container=$(docker run -d ${DOCKER_ARGS:-} -e SPRING_PROFILES_ACTIVE="$PROFILES" \
+        -e SPRING_DATASOURCE_URL -e SPRING_DATASOURCE_USERNAME -e SPRING_DATASOURCE_PASSWORD "$IMAGE")
+    seconds=""
+    for _ in $(seq "$START_TIMEOUT_SECONDS"); do
+        seconds=$(docker logs "$container" 2>&1 \
+            | sed -nE 's/.*Started DoctorVisitTrackingApplication in ([0-9.]+) seconds.*/\1/p')
+        [ -n "$seconds" ] && break
+        sleep 1
+    done
+    docker rm -f "$container" > /dev/null
+    if [ -z "$seconds" ]; then
+        echo "run $run: application did not start within ${START_TIMEOUT_SECONDS}s" >&2
+        exit 1
+    fi
+    echo "run $run: ${seconds}s"
+    times+=("$seconds")
+done
+
+median=$(printf '%s\n' "${times[@]}" | sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }')
+echo "median startup with profiles '$PROFILES': ${median}s, budget ${BUDGET_SECONDS}s"
+if ! awk -v median="$median" -v budget="$BUDGET_SECONDS" 'BEGIN { exit !(median <= budget) }'; then
+    echo "startup time regression: ${median}s exceeds ${BUDGET_SECONDS}s" >&2
+    exit 1
+fi
@@ -0,0 +1,18 @@
+package com.testtask.doctorvisittracking.benchmark;
+
+import com.testtask.doctorvisittracking.DoctorVisitTrackingApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DoctorVisitTrackingApplication.class)
+                .profiles("benchmark")
+                .run();
+    }
+
+}
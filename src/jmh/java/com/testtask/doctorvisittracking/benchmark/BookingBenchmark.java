@@ -0,0 +1,57 @@
+package com.testtask.doctorvisittracking.benchmark;
+
+import com.testtask.doctorvisittracking.dto.VisitRequest;
+import com.testtask.doctorvisittracking.dto.VisitResponse;
+import com.testtask.doctorvisittracking.service.VisitService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookingBenchmark {
+
+    private static final OffsetDateTime FIRST_SLOT = OffsetDateTime.of(2040, 1, 1, 0, 0, 0, 0, ZoneOffset.ofHours(2));
+    private static final int DOCTORS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private VisitService visitService;
+    private long nextSlot;
+    private VisitRequest fixedRequest;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        visitService = context.getBean(VisitService.class);
+        fixedRequest = createRequest(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public VisitResponse createVisit() {
+        return visitService.createVisit(createRequest(nextSlot++));
+    }
+
+    @Benchmark
+    public boolean validateVisitRequest() {
+        return fixedRequest.isTimeValid();
+    }
+
+    private static VisitRequest createRequest(long slot) {
+        OffsetDateTime start = FIRST_SLOT.plusHours(slot / DOCTORS);
+        long id = slot % DOCTORS + 1;
+        return new VisitRequest(start.toInstant(), start.plusMinutes(30).toInstant(), id, id);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.testtask.doctorvisittracking.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.testtask.doctorvisittracking.dto.VisitDateTimeParser;
+import com.testtask.doctorvisittracking.dto.VisitRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateTimeParsingBenchmark {
+
+    private static final DateTimeFormatter FORMATTER = ofPattern("yyyy-MM-dd HH:mm:ssXXX");
+    private static final String START = "2025-02-20 10:00:00+02:00";
+    private static final String END = "2025-02-20 10:30:00+02:00";
+
+    private final ZoneId doctorZone = ZoneId.of("Europe/Kyiv");
+    private final ObjectReader reader = Jackson2ObjectMapperBuilder.json().build()
+            .readerFor(VisitRequest.class);
+    private final String json = """
+            {"startDateTime":"%s","endDateTime":"%s","patientId":1,"doctorId":2}""".formatted(START, END);
+
+    @Benchmark
+    public void parseWithFormatterPerCall(Blackhole blackhole) {
+        DateTimeFormatter formatter = ofPattern("yyyy-MM-dd HH:mm:ssXXX");
+        ZonedDateTime start = ZonedDateTime.parse(START, formatter);
+        ZonedDateTime end = ZonedDateTime.parse(END, formatter);
+        if (!end.isAfter(start)) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(OffsetDateTime.parse(START, FORMATTER).toZonedDateTime().withZoneSameInstant(doctorZone)
+                .toLocalDateTime());
+        blackhole.consume(OffsetDateTime.parse(END, FORMATTER).toZonedDateTime().withZoneSameInstant(doctorZone)
+                .toLocalDateTime());
+    }
+
+    @Benchmark
+    public void parseOnce(Blackhole blackhole) {
+        VisitRequest request = new VisitRequest(VisitDateTimeParser.parse(START), VisitDateTimeParser.parse(END), 1L,
+                2L);
+        if (!request.isTimeValid()) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(LocalDateTime.ofInstant(request.getStartDateTime(), doctorZone));
+        blackhole.consume(LocalDateTime.ofInstant(request.getEndDateTime(), doctorZone));
+    }
+
+    @Benchmark
+    public VisitRequest deserializeVisitRequest() throws IOException {
+        return reader.readValue(json);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.testtask.doctorvisittracking.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testtask.doctorvisittracking.dto.PatientResponse;
+import com.testtask.doctorvisittracking.dto.VisitRow;
+import com.testtask.doctorvisittracking.entity.Visit;
+import com.testtask.doctorvisittracking.repository.PatientRepository;
+import com.testtask.doctorvisittracking.repository.VisitRepository;
+import com.testtask.doctorvisittracking.service.VisitService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.testtask.doctorvisittracking.dto.PatientMatch.EXACT;
+import static org.springframework.data.domain.PageRequest.of;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PatientListingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    @Param({"", "20,25,30"})
+    public String doctorIds;
+
+    private ConfigurableApplicationContext context;
+    private VisitService visitService;
+    private ObjectMapper objectMapper;
+    private List<Long> doctorIdList;
+    private Page<PatientResponse> page;
+    private VisitRepository visitRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private List<Long> patientIds;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        visitService = context.getBean(VisitService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        doctorIdList = doctorIds.isEmpty()
+                ? List.of()
+                : Arrays.stream(doctorIds.split(",")).map(Long::valueOf).toList();
+        page = visitService.getPatientsWithVisits(0, size, "", EXACT, doctorIdList);
+        visitRepository = context.getBean(VisitRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        patientIds = context.getBean(PatientRepository.class).findAllIds(of(0, size)).getContent();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<PatientResponse> getPatientsWithVisits() {
+        return visitService.getPatientsWithVisits(0, size, "", EXACT, doctorIdList);
+    }
+
+    @Benchmark
+    public byte[] getPatientsWithVisitsAsJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new PagedModel<>(getPatientsWithVisits()));
+    }
+
+    @Benchmark
+    public byte[] serializePatientResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new PagedModel<>(page));
+    }
+
+    @Benchmark
+    public List<Visit> fetchVisitEntities() {
+        return readOnlyTransaction.execute(status -> entityManager.createQuery("""
+                        SELECT v FROM Visit v JOIN FETCH v.patient JOIN FETCH v.doctor
+                        WHERE v.patient.id IN :patientIds""", Visit.class)
+                .setParameter("patientIds", patientIds)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<VisitRow> fetchVisitRows() {
+        return readOnlyTransaction.execute(status -> visitRepository.findRowsByPatientIds(patientIds));
+    }
+
+}
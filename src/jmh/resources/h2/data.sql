@@ -0,0 +1,27 @@
+INSERT INTO patients (first_name, last_name)
+SELECT CONCAT('Patient', X), CONCAT('LastName', X) FROM SYSTEM_RANGE(1, 10000);
+
+INSERT INTO doctors (first_name, last_name, time_zone)
+SELECT CONCAT('Doctor', X), CONCAT('LastName', X),
+       CASE MOD(X, 5)
+           WHEN 0 THEN 'UTC'
+           WHEN 1 THEN 'America/New_York'
+           WHEN 2 THEN 'Europe/Berlin'
+           WHEN 3 THEN 'Asia/Tokyo'
+           WHEN 4 THEN 'Australia/Sydney'
+           END
+FROM SYSTEM_RANGE(1, 10000);
+
+INSERT INTO visits (id, start_date_time, end_date_time, patient_id, doctor_id)
+SELECT X,
+       DATEADD('MINUTE', X, TIMESTAMP '2030-01-01 00:00:00'),
+       DATEADD('MINUTE', X + 30, TIMESTAMP '2030-01-01 00:00:00'),
+       MOD(X * 7919, 10000) + 1,
+       MOD(X * 104729, 10000) + 1
+FROM SYSTEM_RANGE(1, 10000);
+
+INSERT INTO doctor_patients (doctor_id, patient_id)
+SELECT DISTINCT doctor_id, patient_id FROM visits;
+
+INSERT INTO doctor_patient_counts (doctor_id, total_patients)
+SELECT doctor_id, COUNT(*) FROM doctor_patients GROUP BY doctor_id;
@@ -0,0 +1,57 @@
+CREATE TABLE patients (
+                          id INT PRIMARY KEY AUTO_INCREMENT,
+                          first_name VARCHAR(50) NOT NULL,
+                          last_name VARCHAR(50) NOT NULL,
+                          first_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(first_name)),
+                          last_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(last_name)));
+
+CREATE TABLE doctors (
+                         id INT PRIMARY KEY AUTO_INCREMENT,
+                         first_name VARCHAR(50) NOT NULL,
+                         last_name VARCHAR(50) NOT NULL,
+                         time_zone VARCHAR(50) NOT NULL);
+
+CREATE TABLE visits (
+                        id INT PRIMARY KEY,
+                        start_date_time DATETIME NOT NULL,
+                        end_date_time DATETIME NOT NULL,
+                        patient_id INT NOT NULL,
+                        doctor_id INT NOT NULL,
+                        FOREIGN KEY (patient_id) REFERENCES patients(id),
+                        FOREIGN KEY (doctor_id) REFERENCES doctors(id));
+
+CREATE TABLE visits_archive (
+                                id INT PRIMARY KEY,
+                                start_date_time DATETIME NOT NULL,
+                                end_date_time DATETIME NOT NULL,
+                                patient_id INT NOT NULL,
+                                doctor_id INT NOT NULL,
+                                archived_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP);
+
+CREATE TABLE visit_events (
+                              id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                              event_type VARCHAR(32) NOT NULL,
+                              visit_id INT NOT NULL,
+                              doctor_id INT NOT NULL,
+                              patient_id INT NOT NULL,
+                              start_date_time DATETIME NOT NULL,
+                              end_date_time DATETIME NOT NULL,
+                              created_at DATETIME NOT NULL,
+                              published_at DATETIME NULL);
+
+CREATE TABLE doctor_patients (
+                                 doctor_id INT NOT NULL,
+                                 patient_id INT NOT NULL,
+                                 PRIMARY KEY (doctor_id, patient_id));
+
+CREATE TABLE doctor_patient_counts (
+                                       doctor_id INT PRIMARY KEY,
+                                       total_patients BIGINT NOT NULL DEFAULT 0);
+
+CREATE SEQUENCE visits_seq START WITH 100000 INCREMENT BY 50;
+
+CREATE INDEX idx_visits_doctor_start_end ON visits (doctor_id, start_date_time, end_date_time);
+CREATE INDEX idx_visits_doctor_patient ON visits (doctor_id, patient_id);
+CREATE INDEX idx_visits_patient_doctor ON visits (patient_id, doctor_id);
+CREATE INDEX idx_patients_first_name_lower ON patients (first_name_lower, id);
+CREATE INDEX idx_patients_last_name_lower ON patients (last_name_lower, id);
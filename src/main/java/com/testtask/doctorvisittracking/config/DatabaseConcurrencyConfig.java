@@ -0,0 +1,28 @@
+package com.testtask.doctorvisittracking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(prefix = "visits.db-concurrency", name = "enabled", havingValue = "true")
+public class DatabaseConcurrencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<DatabaseConcurrencyFilter> databaseConcurrencyFilter(
+            VisitProperties visitProperties,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        VisitProperties.DbConcurrency dbConcurrency = visitProperties.getDbConcurrency();
+        int permits = dbConcurrency.getPermits() > 0 ? dbConcurrency.getPermits() : maximumPoolSize;
+        FilterRegistrationBean<DatabaseConcurrencyFilter> registration = new FilterRegistrationBean<>(
+                new DatabaseConcurrencyFilter(permits, dbConcurrency.getAcquireTimeout(),
+                        Map.of("/doctors/utilization", visitProperties.getReport().getParallelism())));
+        registration.addUrlPatterns("/visits/*", "/doctors/*");
+        return registration;
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.testtask.doctorvisittracking.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+public class DatabaseConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final Duration acquireTimeout;
+    private final Map<String, Integer> pathPermits;
+
+    public DatabaseConcurrencyFilter(int permits, Duration acquireTimeout, Map<String, Integer> pathPermits) {
+        this.permits = new Semaphore(permits);
+        this.maxPermits = permits;
+        this.acquireTimeout = acquireTimeout;
+        this.pathPermits = Map.copyOf(pathPermits);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int required = requiredPermits(request);
+        if (!tryAcquire(required)) {
+            response.setStatus(TOO_MANY_REQUESTS.value());
+            response.setHeader(RETRY_AFTER, "1");
+            response.getWriter().write("Too many concurrent requests, please retry");
+            return;
+        }
+        boolean asyncStarted = false;
+        try {
+            filterChain.doFilter(request, response);
+            asyncStarted = request.isAsyncStarted();
+        } finally {
+            if (asyncStarted) {
+                request.getAsyncContext().addListener(new PermitReleasingListener(required));
+            } else {
+                permits.release(required);
+            }
+        }
+    }
+
+    private int requiredPermits(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return Math.clamp(pathPermits.getOrDefault(path, 1), 1, maxPermits);
+    }
+
+    private boolean tryAcquire(int required) {
+        try {
+            return permits.tryAcquire(required, acquireTimeout.toMillis(), MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private class PermitReleasingListener implements AsyncListener {
+
+        private final int acquired;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingListener(int acquired) {
+            this.acquired = acquired;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release(acquired);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.testtask.doctorvisittracking.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final VisitProperties.Replica replica;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, VisitProperties.Replica replica) {
+        replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.replica = replica;
+        replicaUsable = replica.getLagQuery().isEmpty();
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${visits.replica.lag-check-interval:2s}")
+    public void checkLag() {
+        if (replica.getLagQuery().isEmpty()) {
+            return;
+        }
+        boolean usable;
+        try {
+            Duration lag = replicaJdbcTemplate.query(replica.getLagQuery(), this::extractLag);
+            usable = lag != null && lag.compareTo(replica.getMaxLag()) <= 0;
+        } catch (DataAccessException exception) {
+            log.warn("Replica lag check failed: {}", exception.getMessage());
+            usable = false;
+        }
+        if (usable != replicaUsable) {
+            log.info("Routing read-only transactions to the {}", usable ? "replica" : "primary");
+        }
+        replicaUsable = usable;
+    }
+
+    private Duration extractLag(ResultSet resultSet) throws SQLException {
+        if (!resultSet.next()) {
+            return null;
+        }
+        long seconds = resultSet.getLong(replica.getLagColumn());
+        return resultSet.wasNull() ? null : Duration.ofSeconds(seconds);
+    }
+
+}
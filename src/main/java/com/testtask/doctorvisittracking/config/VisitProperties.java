@@ -0,0 +1,187 @@
+package com.testtask.doctorvisittracking.config;
+
+import jakarta.validation.Valid;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.validator.constraints.time.DurationMax;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "visits")
+public class VisitProperties {
+
+    private Counter doctorPatientCounter = new Counter();
+    @Valid
+    private Booking booking = new Booking();
+    private ScheduleIndex scheduleIndex = new ScheduleIndex();
+    private DbConcurrency dbConcurrency = new DbConcurrency();
+    private PatientSearch patientSearch = new PatientSearch();
+    private Availability availability = new Availability();
+    private Replica replica = new Replica();
+    private Listing listing = new Listing();
+    private ListingCache listingCache = new ListingCache();
+    private Archive archive = new Archive();
+    private Partitions partitions = new Partitions();
+    private AsyncBooking asyncBooking = new AsyncBooking();
+    private Report report = new Report();
+    private Outbox outbox = new Outbox();
+
+    @Getter
+    @Setter
+    public static class Counter {
+
+        private boolean rebuildOnStartup = true;
+
+    }
+
+    @Getter
+    @Setter
+    public static class Booking {
+
+        private int lockStripes = 256;
+        private Duration lockTimeout = Duration.ofSeconds(2);
+        private boolean databaseLock = true;
+        @DurationMax(hours = 24)
+        private Duration maxVisitDuration = Duration.ofHours(24);
+
+    }
+
+    @Getter
+    @Setter
+    public static class ScheduleIndex {
+
+        private boolean enabled;
+        private boolean authoritative;
+        private String evictionCron = "0 0 3 * * *";
+
+    }
+
+    @Getter
+    @Setter
+    public static class DbConcurrency {
+
+        private boolean enabled;
+        private int permits;
+        private Duration acquireTimeout = Duration.ofMillis(50);
+
+    }
+
+    @Getter
+    @Setter
+    public static class PatientSearch {
+
+        private boolean enabled = true;
+        private int maxEdits = 2;
+        private int maxResults = 10_000;
+
+    }
+
+    @Getter
+    @Setter
+    public static class Availability {
+
+        private Duration maxRange = Duration.ofDays(31);
+        private int maxDoctors = 100;
+        private int maxSlots = 150_000;
+        private int parallelism = 4;
+
+    }
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private boolean enabled;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private Duration maxLag = Duration.ofSeconds(5);
+        private Duration lagCheckInterval = Duration.ofSeconds(2);
+        private String lagQuery = "SHOW REPLICA STATUS";
+        private String lagColumn = "Seconds_Behind_Source";
+
+    }
+
+    @Getter
+    @Setter
+    public static class Listing {
+
+        private int maxPageSize = 100;
+
+    }
+
+    @Getter
+    @Setter
+    public static class ListingCache {
+
+        private boolean enabled = true;
+        private long maximumSize = 1000;
+        private Duration ttl = Duration.ofSeconds(30);
+
+    }
+
+    @Getter
+    @Setter
+    public static class Archive {
+
+        private boolean enabled;
+        private Duration horizon = Duration.ofDays(365);
+        private int batchSize = 5000;
+        private String cron = "0 30 3 * * *";
+
+    }
+
+    @Getter
+    @Setter
+    public static class Partitions {
+
+        private boolean enabled = true;
+        private String cron = "0 0 3 * * *";
+        private int monthsAhead = 3;
+
+    }
+
+    @Getter
+    @Setter
+    public static class AsyncBooking {
+
+        private boolean enabled;
+        private int partitions = 8;
+        private int capacity = 10000;
+        private int maxBatchSize = 100;
+        private Duration resultTtl = Duration.ofMinutes(10);
+        private long resultsMaximumSize = 100000;
+
+    }
+
+    @Getter
+    @Setter
+    public static class Report {
+
+        private Duration maxRange = Duration.ofDays(366);
+        private int maxDoctors = 10000;
+        private int shardSize = 500;
+        private int parallelism = 4;
+        private Duration latencyBudget = Duration.ofSeconds(2);
+
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+
+        private boolean relayEnabled = true;
+        private int batchSize = 500;
+        private Duration relayInterval = Duration.ofSeconds(1);
+        private Duration retention = Duration.ofDays(7);
+        private String cleanupCron = "0 0 4 * * *";
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.testtask.doctorvisittracking.controller;
+
+import com.testtask.doctorvisittracking.dto.DoctorAvailabilityResponse;
+import com.testtask.doctorvisittracking.dto.UtilizationReportResponse;
+import com.testtask.doctorvisittracking.service.AvailabilityService;
+import com.testtask.doctorvisittracking.service.UtilizationReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE;
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/doctors")
+public class DoctorController {
+
+    private final AvailabilityService availabilityService;
+    private final UtilizationReportService utilizationReportService;
+
+    @GetMapping("/{id}/availability")
+    public DoctorAvailabilityResponse getAvailability(@PathVariable Long id,
+                                                      @RequestParam @DateTimeFormat(iso = DATE_TIME) LocalDateTime from,
+                                                      @RequestParam @DateTimeFormat(iso = DATE_TIME) LocalDateTime to,
+                                                      @RequestParam(defaultValue = "30") int slotMinutes) {
+        return availabilityService.getAvailability(id, from, to, slotMinutes);
+    }
+
+    @GetMapping("/availability")
+    public List<DoctorAvailabilityResponse> getAvailability(@RequestParam List<Long> doctorIds,
+                                                            @RequestParam @DateTimeFormat(iso = DATE_TIME)
+                                                            LocalDateTime from,
+                                                            @RequestParam @DateTimeFormat(iso = DATE_TIME)
+                                                            LocalDateTime to,
+                                                            @RequestParam(defaultValue = "30") int slotMinutes) {
+        return availabilityService.getAvailability(doctorIds, from, to, slotMinutes);
+    }
+
+    @GetMapping("/utilization")
+    public UtilizationReportResponse getUtilization(@RequestParam(defaultValue = "") List<Long> doctorIds,
+                                                    @RequestParam @DateTimeFormat(iso = DATE) LocalDate from,
+                                                    @RequestParam @DateTimeFormat(iso = DATE) LocalDate to) {
+        return utilizationReportService.getUtilization(doctorIds, from, to);
+    }
+
+}
@@ -1,32 +1,89 @@
 package com.testtask.doctorvisittracking.controller;
 
-import com.testtask.doctorvisittracking.dto.PatientResponse;
+import com.testtask.doctorvisittracking.dto.BookingStatusResponse;
+import com.testtask.doctorvisittracking.dto.PatientCursorResponse;
+import com.testtask.doctorvisittracking.dto.PatientMatch;
+import com.testtask.doctorvisittracking.dto.VisitBatchItemResponse;
+import com.testtask.doctorvisittracking.dto.VisitBatchRequest;
 import com.testtask.doctorvisittracking.dto.VisitRequest;
 import com.testtask.doctorvisittracking.dto.VisitResponse;
+import com.testtask.doctorvisittracking.service.AsyncBookingQueue;
+import com.testtask.doctorvisittracking.service.PatientExportService;
+import com.testtask.doctorvisittracking.service.PatientListingCache;
+import com.testtask.doctorvisittracking.service.PatientListingCache.CachedListing;
 import com.testtask.doctorvisittracking.service.VisitService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
 
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/visits")
 public class VisitController {
 
     private final VisitService visitService;
+    private final PatientExportService patientExportService;
+    private final PatientListingCache patientListingCache;
+    private final AsyncBookingQueue asyncBookingQueue;
 
     @PostMapping
     public VisitResponse createVisit(@RequestBody @Valid VisitRequest visitRequest) {
         return visitService.createVisit(visitRequest);
     }
 
+    @PostMapping(headers = "Prefer=respond-async")
+    public ResponseEntity<?> createVisitAsync(@RequestBody @Valid VisitRequest visitRequest) {
+        if (!asyncBookingQueue.isEnabled()) {
+            return ResponseEntity.ok(visitService.createVisit(visitRequest));
+        }
+        BookingStatusResponse booking = asyncBookingQueue.submit(visitRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create("/visits/bookings/" + booking.bookingId()))
+                .body(booking);
+    }
+
+    @GetMapping("/bookings/{bookingId}")
+    public BookingStatusResponse getBooking(@PathVariable String bookingId) {
+        return asyncBookingQueue.getStatus(bookingId);
+    }
+
+    @PostMapping("/batch")
+    public List<VisitBatchItemResponse> createVisits(@RequestBody @Valid VisitBatchRequest visitBatchRequest) {
+        return visitService.createVisits(visitBatchRequest.visits());
+    }
+
     @GetMapping("/patients")
-    public Page<PatientResponse> getPatients(@RequestParam int page, @RequestParam int size,
-                                             @RequestParam String search, @RequestParam List<Long> doctorIds) {
-        return visitService.getPatientsWithVisits(page, size, search, doctorIds);
+    public ResponseEntity<byte[]> getPatients(@RequestParam int page, @RequestParam int size,
+                                              @RequestParam String search, @RequestParam List<Long> doctorIds,
+                                              @RequestParam(defaultValue = "exact") String match) {
+        CachedListing listing = patientListingCache.getPatients(page, size, search, PatientMatch.parse(match),
+                doctorIds);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(listing.etag())
+                .body(listing.body());
+    }
+
+    @GetMapping(value = "/patients", params = "cursor")
+    public PatientCursorResponse getPatientsByCursor(@RequestParam String cursor, @RequestParam int size,
+                                                     @RequestParam String search, @RequestParam List<Long> doctorIds,
+                                                     @RequestParam(defaultValue = "exact") String match) {
+        return visitService.getPatientsWithVisits(cursor, size, search, PatientMatch.parse(match), doctorIds);
+    }
+
+    @GetMapping(value = "/patients/export", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportPatients(@RequestParam String search, @RequestParam List<Long> doctorIds) {
+        return outputStream -> patientExportService.exportPatientsWithVisits(search, doctorIds, outputStream);
     }
 
 }
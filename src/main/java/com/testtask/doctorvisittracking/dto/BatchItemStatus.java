@@ -0,0 +1,10 @@
+package com.testtask.doctorvisittracking.dto;
+
+public enum BatchItemStatus {
+
+    BOOKED,
+    CONFLICT,
+    NOT_FOUND,
+    INVALID
+
+}
@@ -0,0 +1,12 @@
+package com.testtask.doctorvisittracking.dto;
+
+public enum BookingStatus {
+
+    PENDING,
+    BOOKED,
+    CONFLICT,
+    NOT_FOUND,
+    INVALID,
+    FAILED
+
+}
@@ -0,0 +1,4 @@
+package com.testtask.doctorvisittracking.dto;
+
+public record BookingStatusResponse(String bookingId, BookingStatus status, String message, VisitResponse visit) {
+}
@@ -0,0 +1,6 @@
+package com.testtask.doctorvisittracking.dto;
+
+import java.time.LocalDate;
+
+public record DailyUtilizationDto(LocalDate date, long visits, long bookedMinutes, long distinctPatients) {
+}
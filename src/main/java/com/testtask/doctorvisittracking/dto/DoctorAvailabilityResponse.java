@@ -0,0 +1,6 @@
+package com.testtask.doctorvisittracking.dto;
+
+import java.util.List;
+
+public record DoctorAvailabilityResponse(Long doctorId, String timeZone, List<FreeSlotDto> freeSlots) {
+}
@@ -0,0 +1,6 @@
+package com.testtask.doctorvisittracking.dto;
+
+import java.time.ZoneId;
+
+public record DoctorInfo(Long id, String firstName, String lastName, ZoneId timeZone) {
+}
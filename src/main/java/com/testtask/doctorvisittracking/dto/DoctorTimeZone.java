@@ -0,0 +1,4 @@
+package com.testtask.doctorvisittracking.dto;
+
+public record DoctorTimeZone(Long id, String timeZone) {
+}
@@ -0,0 +1,7 @@
+package com.testtask.doctorvisittracking.dto;
+
+import java.util.List;
+
+public record DoctorUtilizationDto(Long doctorId, String timeZone, long visits, long bookedMinutes,
+                                   long distinctPatients, List<DailyUtilizationDto> days) {
+}
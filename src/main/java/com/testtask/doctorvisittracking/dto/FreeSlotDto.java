@@ -0,0 +1,6 @@
+package com.testtask.doctorvisittracking.dto;
+
+import java.time.LocalDateTime;
+
+public record FreeSlotDto(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+}
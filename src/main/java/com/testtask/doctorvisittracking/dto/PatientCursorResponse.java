@@ -0,0 +1,6 @@
+package com.testtask.doctorvisittracking.dto;
+
+import java.util.List;
+
+public record PatientCursorResponse(List<PatientDto> patientDtos, int count, String nextCursor) {
+}
@@ -0,0 +1,4 @@
+package com.testtask.doctorvisittracking.dto;
+
+public record PatientInfo(Long id, String firstName, String lastName) {
+}
@@ -0,0 +1,9 @@
+package com.testtask.doctorvisittracking.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Set;
+
+public record PatientListing(Page<PatientResponse> page, List<Long> patientIds, Set<Long> doctorIds) {
+}
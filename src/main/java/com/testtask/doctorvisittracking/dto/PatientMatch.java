@@ -0,0 +1,18 @@
+package com.testtask.doctorvisittracking.dto;
+
+import com.testtask.doctorvisittracking.exception.BadRequestException;
+
+public enum PatientMatch {
+
+    EXACT, PREFIX, FUZZY;
+
+    public static PatientMatch parse(String value) {
+        for (PatientMatch match : values()) {
+            if (match.name().equalsIgnoreCase(value)) {
+                return match;
+            }
+        }
+        throw new BadRequestException("Unknown match mode: " + value);
+    }
+
+}
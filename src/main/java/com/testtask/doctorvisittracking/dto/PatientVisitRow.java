@@ -0,0 +1,8 @@
+package com.testtask.doctorvisittracking.dto;
+
+import java.time.LocalDateTime;
+
+public record PatientVisitRow(Long patientId, String patientFirstName, String patientLastName,
+                              LocalDateTime startDateTime, LocalDateTime endDateTime, String doctorFirstName,
+                              String doctorLastName, Long totalPatients) {
+}
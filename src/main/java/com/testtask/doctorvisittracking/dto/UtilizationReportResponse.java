@@ -0,0 +1,8 @@
+package com.testtask.doctorvisittracking.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record UtilizationReportResponse(LocalDate from, LocalDate to, boolean complete,
+                                        List<DoctorUtilizationDto> doctors) {
+}
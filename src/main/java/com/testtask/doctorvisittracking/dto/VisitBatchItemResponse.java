@@ -0,0 +1,4 @@
+package com.testtask.doctorvisittracking.dto;
+
+public record VisitBatchItemResponse(int index, BatchItemStatus status, String message, VisitResponse visit) {
+}
@@ -0,0 +1,32 @@
+package com.testtask.doctorvisittracking.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+public class VisitDateTimeDeserializer extends StdScalarDeserializer<Instant> {
+
+    public VisitDateTimeDeserializer() {
+        super(Instant.class);
+    }
+
+    @Override
+    public Instant deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.hasToken(JsonToken.VALUE_STRING)) {
+            return (Instant) context.handleUnexpectedToken(Instant.class, parser);
+        }
+        String text = parser.getText();
+        try {
+            return VisitDateTimeParser.parse(text);
+        } catch (DateTimeParseException exception) {
+            return (Instant) context.handleWeirdStringValue(Instant.class, text,
+                    "expected " + VisitDateTimeParser.PATTERN);
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.testtask.doctorvisittracking.dto;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+public final class VisitDateTimeParser {
+
+    public static final String PATTERN = "yyyy-MM-dd HH:mm:ssXXX";
+
+    private static final int LOCAL_LENGTH = 19;
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private VisitDateTimeParser() {
+    }
+
+    public static Instant parse(CharSequence text) {
+        int length = text.length();
+        if (length != LOCAL_LENGTH + 1 && length != LOCAL_LENGTH + 6
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != ' '
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            throw invalid(text);
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        int offsetSeconds = offsetSeconds(text);
+        if (hour > 23 || minute > 59 || second > 59) {
+            throw invalid(text);
+        }
+        long epochDay;
+        try {
+            epochDay = LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException exception) {
+            throw invalid(text);
+        }
+        return Instant.ofEpochSecond(epochDay * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second
+                - offsetSeconds);
+    }
+
+    private static int offsetSeconds(CharSequence text) {
+        char sign = text.charAt(LOCAL_LENGTH);
+        if (text.length() == LOCAL_LENGTH + 1) {
+            if (sign != 'Z') {
+                throw invalid(text);
+            }
+            return 0;
+        }
+        if (sign != '+' && sign != '-' || text.charAt(LOCAL_LENGTH + 3) != ':') {
+            throw invalid(text);
+        }
+        int hours = digits(text, LOCAL_LENGTH + 1, 2);
+        int minutes = digits(text, LOCAL_LENGTH + 4, 2);
+        if (hours > 18 || minutes > 59 || hours == 18 && minutes > 0) {
+            throw invalid(text);
+        }
+        int offsetSeconds = hours * 3600 + minutes * 60;
+        return sign == '+' ? offsetSeconds : -offsetSeconds;
+    }
+
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(text);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static DateTimeParseException invalid(CharSequence text) {
+        return new DateTimeParseException("Text '" + text + "' does not match " + PATTERN, text, 0);
+    }
+
+}
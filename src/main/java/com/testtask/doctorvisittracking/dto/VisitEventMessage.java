@@ -0,0 +1,9 @@
+package com.testtask.doctorvisittracking.dto;
+
+import com.testtask.doctorvisittracking.entity.VisitEventType;
+
+import java.time.LocalDateTime;
+
+public record VisitEventMessage(Long eventId, VisitEventType eventType, Long visitId, Long doctorId, Long patientId,
+                                LocalDateTime startDateTime, LocalDateTime endDateTime, LocalDateTime createdAt) {
+}
@@ -1,32 +1,31 @@
 package com.testtask.doctorvisittracking.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-
-import static java.time.ZonedDateTime.parse;
-import static java.time.format.DateTimeFormatter.ofPattern;
+import java.time.Instant;
 
 @Getter
 @Setter
 @AllArgsConstructor
 public class VisitRequest {
 
-    private String startDateTime;
-    private String endDateTime;
+    @NotNull
+    @JsonDeserialize(using = VisitDateTimeDeserializer.class)
+    private Instant startDateTime;
+    @NotNull
+    @JsonDeserialize(using = VisitDateTimeDeserializer.class)
+    private Instant endDateTime;
     private Long patientId;
     private Long doctorId;
 
     @AssertTrue(message = "End time must be after start time")
     public boolean isTimeValid() {
-        DateTimeFormatter formatter = ofPattern("yyyy-MM-dd HH:mm:ssXXX");
-        ZonedDateTime start = parse(startDateTime, formatter);
-        ZonedDateTime end = parse(endDateTime, formatter);
-        return end.isAfter(start);
+        return startDateTime == null || endDateTime == null || endDateTime.isAfter(startDateTime);
     }
 
 }
@@ -0,0 +1,7 @@
+package com.testtask.doctorvisittracking.dto;
+
+import java.time.LocalDateTime;
+
+public record VisitRow(Long patientId, String patientFirstName, String patientLastName, LocalDateTime startDateTime,
+                       LocalDateTime endDateTime, Long doctorId, String doctorFirstName, String doctorLastName) {
+}
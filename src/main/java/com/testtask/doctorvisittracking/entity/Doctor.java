@@ -12,6 +12,7 @@ import static jakarta.persistence.GenerationType.IDENTITY;
 @Getter
 @Setter
 @Entity
+@EntityListeners(LookupCacheEvictionListener.class)
 @Table(name = "doctors")
 public class Doctor {
 
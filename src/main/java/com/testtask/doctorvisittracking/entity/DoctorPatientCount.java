@@ -0,0 +1,21 @@
+package com.testtask.doctorvisittracking.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "doctor_patient_counts")
+public class DoctorPatientCount {
+
+    @Id
+    private Long doctorId;
+    @Column
+    private Long totalPatients;
+
+}
@@ -0,0 +1,48 @@
+package com.testtask.doctorvisittracking.entity;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static com.testtask.doctorvisittracking.service.LookupService.DOCTORS;
+import static com.testtask.doctorvisittracking.service.LookupService.PATIENTS;
+
+@RequiredArgsConstructor
+@Component
+public class LookupCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(Object entity) {
+        if (entity instanceof Doctor doctor) {
+            evict(DOCTORS, doctor.getId());
+        } else if (entity instanceof Patient patient) {
+            evict(PATIENTS, patient.getId());
+        }
+    }
+
+    private void evict(String cacheName, Long id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.evict(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.evict(id);
+            }
+        });
+    }
+
+}
@@ -12,6 +12,7 @@ import static jakarta.persistence.GenerationType.IDENTITY;
 @Getter
 @Setter
 @Entity
+@EntityListeners({LookupCacheEvictionListener.class, PatientNameIndexListener.class})
 @Table(name = "patients")
 public class Patient {
 
@@ -22,6 +23,8 @@ public class Patient {
     private String firstName;
     @Column
     private String lastName;
+    @Column(insertable = false, updatable = false)
+    private String lastNameLower;
     @OneToMany(mappedBy = "patient")
     List<Visit> visits = new ArrayList<>();
 }
@@ -0,0 +1,51 @@
+package com.testtask.doctorvisittracking.entity;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.service.PatientNameIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RequiredArgsConstructor
+@Component
+public class PatientNameIndexListener {
+
+    private final PatientNameIndex patientNameIndex;
+    private final VisitProperties visitProperties;
+
+    @PostPersist
+    @PostUpdate
+    public void index(Patient patient) {
+        Long id = patient.getId();
+        String firstName = patient.getFirstName();
+        String lastName = patient.getLastName();
+        afterCommit(() -> patientNameIndex.put(id, firstName, lastName));
+    }
+
+    @PostRemove
+    public void remove(Patient patient) {
+        Long id = patient.getId();
+        afterCommit(() -> patientNameIndex.remove(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!visitProperties.getPatientSearch().isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+}
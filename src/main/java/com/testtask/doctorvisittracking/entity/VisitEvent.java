@@ -0,0 +1,39 @@
+package com.testtask.doctorvisittracking.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+import static jakarta.persistence.EnumType.STRING;
+import static jakarta.persistence.GenerationType.IDENTITY;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "visit_events")
+public class VisitEvent {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private Long id;
+    @Enumerated(STRING)
+    @Column
+    private VisitEventType eventType;
+    @Column
+    private Long visitId;
+    @Column
+    private Long doctorId;
+    @Column
+    private Long patientId;
+    @Column
+    private LocalDateTime startDateTime;
+    @Column
+    private LocalDateTime endDateTime;
+    @Column
+    private LocalDateTime createdAt;
+    @Column
+    private LocalDateTime publishedAt;
+
+}
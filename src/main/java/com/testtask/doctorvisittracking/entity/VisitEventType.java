@@ -0,0 +1,7 @@
+package com.testtask.doctorvisittracking.entity;
+
+public enum VisitEventType {
+
+    BOOKED
+
+}
@@ -0,0 +1,9 @@
+package com.testtask.doctorvisittracking.exception;
+
+public class BookingConflictException extends BadRequestException {
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+
+}
@@ -1,6 +1,9 @@
 package com.testtask.doctorvisittracking.exception;
 
 
+import com.testtask.doctorvisittracking.service.VisitMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -9,13 +12,19 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.testtask.doctorvisittracking.service.VisitMetrics.ERROR_CONFLICT;
+import static com.testtask.doctorvisittracking.service.VisitMetrics.ERROR_NOT_FOUND;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 import static org.springframework.http.ResponseEntity.status;
 
+@RequiredArgsConstructor
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final VisitMetrics visitMetrics;
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleMethodArgumentNotValid(MethodArgumentNotValidException exception) {
         Map<String, String> errors = new HashMap<>();
@@ -26,6 +35,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<String> handleResourceNotFound(ResourceNotFoundException exception) {
+        visitMetrics.recordError(ERROR_NOT_FOUND);
         return status(NOT_FOUND)
                 .body(exception.getMessage());
     }
@@ -36,4 +46,23 @@ public class GlobalExceptionHandler {
                 .body(exception.getMessage());
     }
 
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<String> handleBookingConflict(BookingConflictException exception) {
+        visitMetrics.recordError(ERROR_CONFLICT);
+        return status(BAD_REQUEST)
+                .body(exception.getMessage());
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequests(TooManyRequestsException exception) {
+        return status(TOO_MANY_REQUESTS)
+                .body(exception.getMessage());
+    }
+
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<String> handlePessimisticLockingFailure(PessimisticLockingFailureException exception) {
+        return status(TOO_MANY_REQUESTS)
+                .body("Doctor schedule is busy, please retry");
+    }
+
 }
@@ -0,0 +1,40 @@
+package com.testtask.doctorvisittracking.repository;
+
+import com.testtask.doctorvisittracking.entity.DoctorPatientCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DoctorPatientCountRepository extends JpaRepository<DoctorPatientCount, Long> {
+
+    List<DoctorPatientCount> findByDoctorIdIn(Collection<Long> doctorIds);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO doctor_patients (doctor_id, patient_id) VALUES (:doctorId, :patientId)",
+            nativeQuery = true)
+    int insertDoctorPatient(Long doctorId, Long patientId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO doctor_patient_counts (doctor_id, total_patients) VALUES (:doctorId, 1)
+                        ON DUPLICATE KEY UPDATE total_patients = total_patients + 1""", nativeQuery = true)
+    void incrementTotalPatients(Long doctorId);
+
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO doctor_patients (doctor_id, patient_id)
+                        SELECT doctor_id, patient_id FROM visits
+                        UNION SELECT doctor_id, patient_id FROM visits_archive""", nativeQuery = true)
+    int insertMissingDoctorPatients();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO doctor_patient_counts (doctor_id, total_patients)
+                        SELECT * FROM (SELECT doctor_id, COUNT(*) AS patients FROM doctor_patients GROUP BY doctor_id) AS src
+                        ON DUPLICATE KEY UPDATE total_patients = src.patients""", nativeQuery = true)
+    int recountTotalPatients();
+
+}
@@ -1,7 +1,36 @@
 package com.testtask.doctorvisittracking.repository;
 
+import com.testtask.doctorvisittracking.dto.DoctorTimeZone;
 import com.testtask.doctorvisittracking.entity.Doctor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static jakarta.persistence.LockModeType.PESSIMISTIC_WRITE;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+
+    @Lock(PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Doctor d WHERE d.id = :id")
+    Optional<Doctor> findByIdForUpdate(Long id);
+
+    @Lock(PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Doctor d WHERE d.id IN :ids ORDER BY d.id")
+    List<Doctor> findAllByIdForUpdate(Collection<Long> ids);
+
+    @Query("""
+            SELECT new com.testtask.doctorvisittracking.dto.DoctorTimeZone(d.id, d.timeZone) FROM Doctor d
+                        ORDER BY d.id""")
+    List<DoctorTimeZone> findAllTimeZones(Pageable pageable);
+
+    @Query("""
+            SELECT new com.testtask.doctorvisittracking.dto.DoctorTimeZone(d.id, d.timeZone) FROM Doctor d
+                        WHERE d.id IN :ids ORDER BY d.id""")
+    List<DoctorTimeZone> findTimeZonesByIdIn(Collection<Long> ids);
+
 }
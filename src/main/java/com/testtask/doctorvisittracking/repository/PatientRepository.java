@@ -1,19 +1,40 @@
 package com.testtask.doctorvisittracking.repository;
 
+import com.testtask.doctorvisittracking.dto.PatientInfo;
 import com.testtask.doctorvisittracking.entity.Patient;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface PatientRepository extends JpaRepository<Patient, Long> {
 
+    @Query(value = "SELECT p.id FROM Patient p WHERE p.lastNameLower = LOWER(:search) ORDER BY p.id",
+            countQuery = "SELECT COUNT(p) FROM Patient p WHERE p.lastNameLower = LOWER(:search)")
+    Page<Long> findIdsByLastNameIgnoreCase(String search, Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM Patient p ORDER BY p.id", countQuery = "SELECT COUNT(p) FROM Patient p")
+    Page<Long> findAllIds(Pageable pageable);
+
     @Query("""
-            SELECT DISTINCT p FROM Patient p LEFT JOIN FETCH p.visits v LEFT JOIN FETCH v.doctor
-                        WHERE LOWER(p.lastName) = LOWER(:search)""")
-    Page<Patient> findByFirstNameIgnoreCase(String search, Pageable pageable);
+            SELECT p.id FROM Patient p WHERE p.lastNameLower = LOWER(:search) AND p.id > :afterId
+                        ORDER BY p.id""")
+    List<Long> findIdsByLastNameIgnoreCaseAfter(String search, Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id FROM Patient p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
 
-    @Query("SELECT DISTINCT p FROM Patient p LEFT JOIN FETCH p.visits v LEFT JOIN FETCH v.doctor")
-    Page<Patient> findAllPatients(Pageable pageable);
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.testtask.doctorvisittracking.dto.PatientInfo(p.id, p.firstName, p.lastName) FROM Patient p")
+    Stream<PatientInfo> streamNames();
 
 }
@@ -0,0 +1,71 @@
+package com.testtask.doctorvisittracking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Locale.ROOT;
+
+@RequiredArgsConstructor
+@Repository
+public class PatientSearchRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Page<Long> findIdsByNamePrefixes(String search, Pageable pageable) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String condition = namePrefixCondition(search, parameters);
+        parameters.addValue("limit", pageable.getPageSize());
+        parameters.addValue("offset", pageable.getOffset());
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM patients WHERE " + condition
+                + " ORDER BY id LIMIT :limit OFFSET :offset", parameters, Long.class);
+        return PageableExecutionUtils.getPage(ids, pageable, () -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM patients WHERE " + condition, parameters, Long.class));
+    }
+
+    public List<Long> findIdsByNamePrefixesAfter(String search, long afterId, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String condition = namePrefixCondition(search, parameters);
+        parameters.addValue("afterId", afterId);
+        parameters.addValue("limit", limit);
+        return jdbcTemplate.queryForList("SELECT id FROM patients WHERE " + condition
+                + " AND id > :afterId ORDER BY id LIMIT :limit", parameters, Long.class);
+    }
+
+    private static String namePrefixCondition(String search, MapSqlParameterSource parameters) {
+        List<String> conditions = new ArrayList<>();
+        for (String token : tokenize(search)) {
+            String name = "prefix" + conditions.size();
+            parameters.addValue(name, escapeLike(token) + "%");
+            conditions.add("(first_name_lower LIKE :%1$s ESCAPE '!' OR last_name_lower LIKE :%1$s ESCAPE '!')"
+                    .formatted(name));
+        }
+        return conditions.isEmpty() ? "1 = 1" : String.join(" AND ", conditions);
+    }
+
+    private static Set<String> tokenize(String search) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : search.toLowerCase(ROOT).split("\\s+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String escapeLike(String token) {
+        return token.replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+    }
+
+}
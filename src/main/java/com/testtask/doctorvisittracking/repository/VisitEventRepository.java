@@ -0,0 +1,35 @@
+package com.testtask.doctorvisittracking.repository;
+
+import com.testtask.doctorvisittracking.entity.VisitEvent;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static jakarta.persistence.LockModeType.PESSIMISTIC_WRITE;
+import static org.hibernate.LockOptions.SKIP_LOCKED;
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_LOCK_TIMEOUT;
+
+public interface VisitEventRepository extends JpaRepository<VisitEvent, Long> {
+
+    @Lock(PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HINT_SPEC_LOCK_TIMEOUT, value = "" + SKIP_LOCKED))
+    @Query("SELECT e FROM VisitEvent e WHERE e.publishedAt IS NULL ORDER BY e.id")
+    List<VisitEvent> findUnpublished(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE VisitEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(Collection<Long> ids, LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("DELETE FROM VisitEvent e WHERE e.publishedAt < :publishedBefore")
+    int deletePublishedBefore(LocalDateTime publishedBefore);
+
+}
@@ -0,0 +1,48 @@
+package com.testtask.doctorvisittracking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+
+@RequiredArgsConstructor
+@Repository
+public class VisitPartitionRepository {
+
+    private static final DateTimeFormatter PARTITION_NAME = ofPattern("'p'yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<YearMonth> findMonthlyPartitions() {
+        return jdbcTemplate.queryForList("""
+                        SELECT partition_name FROM information_schema.partitions
+                        WHERE table_schema = DATABASE() AND table_name = 'visits'
+                        AND partition_name REGEXP '^p[0-9]{4}_[0-9]{2}$'
+                        ORDER BY partition_ordinal_position""", String.class).stream()
+                .map(name -> YearMonth.parse(name, PARTITION_NAME))
+                .toList();
+    }
+
+    public boolean isEmpty(YearMonth month) {
+        return !jdbcTemplate.queryForObject("SELECT EXISTS(SELECT 1 FROM visits PARTITION (%s))"
+                .formatted(month.format(PARTITION_NAME)), Boolean.class);
+    }
+
+    public void addMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute("""
+                ALTER TABLE visits REORGANIZE PARTITION p_future INTO (
+                    PARTITION %s VALUES LESS THAN ('%s'),
+                    PARTITION p_future VALUES LESS THAN (MAXVALUE))"""
+                .formatted(month.format(PARTITION_NAME), month.plusMonths(1).atDay(1)));
+    }
+
+    public void dropMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE visits DROP PARTITION " + month.format(PARTITION_NAME));
+    }
+
+}
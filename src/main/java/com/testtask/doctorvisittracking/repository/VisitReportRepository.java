@@ -0,0 +1,55 @@
+package com.testtask.doctorvisittracking.repository;
+
+import com.testtask.doctorvisittracking.dto.UtilizationRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+@Repository
+public class VisitReportRepository {
+
+    private static final ParsedSql UTILIZATION_QUERY = NamedParameterUtils.parseSqlStatement("""
+            SELECT doctor_id, DATE(start_date_time) AS visit_date, COUNT(*) AS visits,
+                   SUM(TIMESTAMPDIFF(MINUTE, start_date_time, end_date_time)) AS booked_minutes,
+                   COUNT(DISTINCT patient_id) AS distinct_patients
+            FROM visits
+            WHERE doctor_id IN (:doctorIds) AND start_date_time >= :from AND start_date_time < :to
+            GROUP BY doctor_id, DATE(start_date_time) WITH ROLLUP""");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<UtilizationRow> findUtilization(Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to,
+                                                Duration timeout) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource(Map.of("doctorIds", doctorIds, "from", from,
+                "to", to));
+        PreparedStatementCreator statementCreator = new PreparedStatementCreatorFactory(
+                NamedParameterUtils.substituteNamedParameters(UTILIZATION_QUERY, parameters),
+                NamedParameterUtils.buildSqlParameterList(UTILIZATION_QUERY, parameters))
+                .newPreparedStatementCreator(NamedParameterUtils.buildValueArray(UTILIZATION_QUERY, parameters,
+                        null));
+        int timeoutSeconds = (int) Math.max(1, (timeout.toMillis() + 999) / 1000);
+        return jdbcTemplate.getJdbcOperations().query(connection -> {
+                    PreparedStatement statement = statementCreator.createPreparedStatement(connection);
+                    statement.setQueryTimeout(timeoutSeconds);
+                    return statement;
+                },
+                (resultSet, rowNum) -> new UtilizationRow(resultSet.getObject("doctor_id", Long.class),
+                        resultSet.getObject("visit_date", LocalDate.class), resultSet.getLong("visits"),
+                        resultSet.getLong("booked_minutes"), resultSet.getLong("distinct_patients")));
+    }
+
+}
@@ -1,21 +1,101 @@
 package com.testtask.doctorvisittracking.repository;
 
+import com.testtask.doctorvisittracking.dto.PatientVisitRow;
+import com.testtask.doctorvisittracking.dto.VisitInterval;
+import com.testtask.doctorvisittracking.dto.VisitRow;
 import com.testtask.doctorvisittracking.entity.Visit;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface VisitRepository extends JpaRepository<Visit, Long> {
 
+    boolean existsByDoctorIdAndStartDateTimeBetweenAndEndDateTimeGreaterThanEqual(
+            Long doctorId, LocalDateTime earliestStartDateTime, LocalDateTime endDateTime,
+            LocalDateTime startDateTime);
+
+    default boolean existsBookedVisit(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                      Duration maxVisitDuration, Long doctorId) {
+        return existsByDoctorIdAndStartDateTimeBetweenAndEndDateTimeGreaterThanEqual(doctorId,
+                startDateTime.minus(maxVisitDuration), endDateTime, startDateTime);
+    }
+
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("""
+            SELECT new com.testtask.doctorvisittracking.dto.VisitRow(p.id, p.firstName, p.lastName, v.startDateTime,
+                        v.endDateTime, d.id, d.firstName, d.lastName)
+                        FROM Visit v JOIN v.patient p JOIN v.doctor d WHERE p.id IN :patientIds""")
+    List<VisitRow> findRowsByPatientIds(Collection<Long> patientIds);
+
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("""
+            SELECT new com.testtask.doctorvisittracking.dto.VisitRow(p.id, p.firstName, p.lastName, v.startDateTime,
+                        v.endDateTime, d.id, d.firstName, d.lastName)
+                        FROM Visit v JOIN v.patient p JOIN v.doctor d
+                        WHERE p.id IN :patientIds AND d.id IN :doctorIds""")
+    List<VisitRow> findRowsByPatientIdsAndDoctorIds(Collection<Long> patientIds, Collection<Long> doctorIds);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            SELECT new com.testtask.doctorvisittracking.dto.VisitInterval(v.doctor.id, v.startDateTime, v.endDateTime)
+                        FROM Visit v WHERE v.endDateTime >= :endedAfter""")
+    Stream<VisitInterval> streamIntervals(LocalDateTime endedAfter);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            SELECT new com.testtask.doctorvisittracking.dto.PatientVisitRow(p.id, p.firstName, p.lastName,
+                        v.startDateTime, v.endDateTime, d.firstName, d.lastName, c.totalPatients)
+                        FROM Visit v JOIN v.patient p JOIN v.doctor d LEFT JOIN DoctorPatientCount c ON c.doctorId = d.id
+                        WHERE (:search IS NULL OR p.lastNameLower = :search)
+                        ORDER BY v.patient.id""")
+    Stream<PatientVisitRow> streamPatientVisitRows(String search);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            SELECT new com.testtask.doctorvisittracking.dto.PatientVisitRow(p.id, p.firstName, p.lastName,
+                        v.startDateTime, v.endDateTime, d.firstName, d.lastName, c.totalPatients)
+                        FROM Visit v JOIN v.patient p JOIN v.doctor d LEFT JOIN DoctorPatientCount c ON c.doctorId = d.id
+                        WHERE (:search IS NULL OR p.lastNameLower = :search) AND v.doctor.id IN :doctorIds
+                        ORDER BY v.patient.id""")
+    Stream<PatientVisitRow> streamPatientVisitRowsByDoctorIds(String search, Collection<Long> doctorIds);
+
+    @Query("""
+            SELECT new com.testtask.doctorvisittracking.dto.VisitInterval(v.doctor.id, v.startDateTime, v.endDateTime)
+                        FROM Visit v WHERE v.doctor.id IN :doctorIds
+                        AND v.startDateTime BETWEEN :earliestStartDateTime AND :endDateTime
+                        AND v.endDateTime >= :startDateTime""")
+    List<VisitInterval> findIntervals(Collection<Long> doctorIds, LocalDateTime earliestStartDateTime,
+                                      LocalDateTime startDateTime, LocalDateTime endDateTime);
+
     @Query("""
-            SELECT v FROM Visit v WHERE v.doctor.id = :doctorId
-                        AND (:startDateTime <= v.endDateTime AND :endDateTime >= v.startDateTime)""")
-    Optional<Visit> findBookedVisit(LocalDateTime startDateTime, LocalDateTime endDateTime, Long doctorId);
+            SELECT v.id FROM Visit v WHERE v.startDateTime < :cutoff AND v.endDateTime < :cutoff
+                        ORDER BY v.startDateTime""")
+    List<Long> findIdsEndedBefore(LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO visits_archive (id, start_date_time, end_date_time, patient_id, doctor_id)
+                        SELECT id, start_date_time, end_date_time, patient_id, doctor_id FROM visits
+                        WHERE id IN :ids AND start_date_time < :cutoff""", nativeQuery = true)
+    int copyToArchive(Collection<Long> ids, LocalDateTime cutoff);
 
-    @Query("SELECT v.doctor.id FROM Visit v GROUP BY v.doctor.id, v.patient.id")
-    List<Long> findAllDoctors();
+    @Modifying
+    @Query("DELETE FROM Visit v WHERE v.id IN :ids AND v.startDateTime < :cutoff")
+    int deleteArchived(Collection<Long> ids, LocalDateTime cutoff);
 
 }
@@ -0,0 +1,169 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.BookingStatus;
+import com.testtask.doctorvisittracking.dto.BookingStatusResponse;
+import com.testtask.doctorvisittracking.dto.VisitBatchItemResponse;
+import com.testtask.doctorvisittracking.dto.VisitRequest;
+import com.testtask.doctorvisittracking.exception.ResourceNotFoundException;
+import com.testtask.doctorvisittracking.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static com.testtask.doctorvisittracking.dto.BookingStatus.FAILED;
+import static com.testtask.doctorvisittracking.dto.BookingStatus.PENDING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@Slf4j
+@Service
+public class AsyncBookingQueue {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final VisitService visitService;
+    private final VisitProperties.AsyncBooking asyncBooking;
+    private final List<BlockingQueue<QueuedBooking>> partitions;
+    private final Map<String, BookingStatusResponse> pendingBookings = new ConcurrentHashMap<>();
+    private final Cache<String, BookingStatusResponse> results;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public AsyncBookingQueue(VisitService visitService, VisitProperties visitProperties,
+                             MeterRegistry meterRegistry) {
+        this.visitService = visitService;
+        asyncBooking = visitProperties.getAsyncBooking();
+        int partitionCapacity = Math.max(1, asyncBooking.getCapacity() / asyncBooking.getPartitions());
+        partitions = IntStream.range(0, asyncBooking.getPartitions())
+                .<BlockingQueue<QueuedBooking>>mapToObj(i -> new ArrayBlockingQueue<>(partitionCapacity))
+                .toList();
+        results = Caffeine.newBuilder()
+                .maximumSize(asyncBooking.getResultsMaximumSize())
+                .expireAfterWrite(asyncBooking.getResultTtl())
+                .build();
+        Gauge.builder("visits.booking.queue.depth", partitions,
+                        queues -> queues.stream().mapToInt(BlockingQueue::size).sum())
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return asyncBooking.isEnabled();
+    }
+
+    public BookingStatusResponse submit(VisitRequest visitRequest) {
+        visitService.validateDuration(visitRequest);
+        String bookingId = UUID.randomUUID().toString();
+        BookingStatusResponse pending = new BookingStatusResponse(bookingId, PENDING, null, null);
+        pendingBookings.put(bookingId, pending);
+        if (!partitionOf(visitRequest.getDoctorId()).offer(new QueuedBooking(bookingId, visitRequest))) {
+            pendingBookings.remove(bookingId);
+            throw new TooManyRequestsException("Booking queue is full, please retry");
+        }
+        return pending;
+    }
+
+    public BookingStatusResponse getStatus(String bookingId) {
+        BookingStatusResponse status = pendingBookings.get(bookingId);
+        if (status == null) {
+            status = results.getIfPresent(bookingId);
+        }
+        if (status == null) {
+            throw new ResourceNotFoundException("Booking not found");
+        }
+        return status;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < partitions.size(); i++) {
+            BlockingQueue<QueuedBooking> partition = partitions.get(i);
+            workers.add(Thread.ofVirtual()
+                    .name("booking-worker-" + i)
+                    .start(() -> drain(partition)));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    void process(List<QueuedBooking> batch) {
+        List<VisitBatchItemResponse> responses;
+        try {
+            responses = visitService.createVisits(batch.stream()
+                    .map(QueuedBooking::visitRequest)
+                    .toList());
+        } catch (RuntimeException exception) {
+            if (batch.size() == 1) {
+                log.warn("Failed to book queued visit {}: {}", batch.getFirst().bookingId(), exception.getMessage());
+                resolve(new BookingStatusResponse(batch.getFirst().bookingId(), FAILED, exception.getMessage(), null));
+                return;
+            }
+            log.warn("Failed to book {} queued visits together, booking them one by one: {}", batch.size(),
+                    exception.getMessage());
+            batch.forEach(booking -> process(List.of(booking)));
+            return;
+        }
+        for (VisitBatchItemResponse response : responses) {
+            String bookingId = batch.get(response.index()).bookingId();
+            resolve(new BookingStatusResponse(bookingId, BookingStatus.valueOf(response.status().name()),
+                    response.message(), response.visit()));
+        }
+    }
+
+    private void resolve(BookingStatusResponse status) {
+        results.put(status.bookingId(), status);
+        pendingBookings.remove(status.bookingId());
+    }
+
+    private void drain(BlockingQueue<QueuedBooking> partition) {
+        List<QueuedBooking> batch = new ArrayList<>(asyncBooking.getMaxBatchSize());
+        while (running || !partition.isEmpty()) {
+            try {
+                QueuedBooking first = partition.poll(POLL_TIMEOUT_MILLIS, MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                partition.drainTo(batch, asyncBooking.getMaxBatchSize() - 1);
+                process(batch);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private BlockingQueue<QueuedBooking> partitionOf(Long doctorId) {
+        return partitions.get(Math.floorMod(doctorId.hashCode(), partitions.size()));
+    }
+
+    record QueuedBooking(String bookingId, VisitRequest visitRequest) {
+    }
+
+}
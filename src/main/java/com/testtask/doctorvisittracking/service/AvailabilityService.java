@@ -0,0 +1,115 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.DoctorAvailabilityResponse;
+import com.testtask.doctorvisittracking.dto.DoctorTimeZone;
+import com.testtask.doctorvisittracking.dto.VisitInterval;
+import com.testtask.doctorvisittracking.exception.BadRequestException;
+import com.testtask.doctorvisittracking.exception.ResourceNotFoundException;
+import com.testtask.doctorvisittracking.repository.DoctorRepository;
+import com.testtask.doctorvisittracking.repository.VisitRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+
+@Service
+public class AvailabilityService {
+
+    private final DoctorRepository doctorRepository;
+    private final VisitRepository visitRepository;
+    private final VisitProperties visitProperties;
+    private final ForkJoinPool slotPool;
+
+    public AvailabilityService(DoctorRepository doctorRepository, VisitRepository visitRepository,
+                               VisitProperties visitProperties) {
+        this.doctorRepository = doctorRepository;
+        this.visitRepository = visitRepository;
+        this.visitProperties = visitProperties;
+        slotPool = new ForkJoinPool(visitProperties.getAvailability().getParallelism());
+    }
+
+    @Transactional(readOnly = true)
+    public DoctorAvailabilityResponse getAvailability(Long doctorId, LocalDateTime from, LocalDateTime to,
+                                                      int slotMinutes) {
+        return getAvailability(List.of(doctorId), from, to, slotMinutes).getFirst();
+    }
+
+    @Transactional(readOnly = true)
+    public List<DoctorAvailabilityResponse> getAvailability(List<Long> doctorIds, LocalDateTime from,
+                                                            LocalDateTime to, int slotMinutes) {
+        List<Long> distinctDoctorIds = doctorIds.stream()
+                .distinct()
+                .toList();
+        Duration slotLength = validate(distinctDoctorIds, from, to, slotMinutes);
+        Map<Long, DoctorTimeZone> doctorIdsToDoctors = doctorRepository.findTimeZonesByIdIn(distinctDoctorIds)
+                .stream()
+                .collect(toMap(DoctorTimeZone::id, identity()));
+        if (doctorIdsToDoctors.size() < distinctDoctorIds.size()) {
+            throw new ResourceNotFoundException("Doctor not found");
+        }
+        Map<Long, List<VisitInterval>> doctorIdsToIntervals = visitRepository.findIntervals(distinctDoctorIds,
+                        from.minus(visitProperties.getBooking().getMaxVisitDuration()), from, to).stream()
+                .collect(groupingBy(VisitInterval::doctorId));
+        if (distinctDoctorIds.size() == 1) {
+            DoctorTimeZone doctor = doctorIdsToDoctors.get(distinctDoctorIds.getFirst());
+            return List.of(assembleAvailability(doctor, doctorIdsToIntervals.getOrDefault(doctor.id(), List.of()),
+                    from, to, slotLength));
+        }
+        List<CompletableFuture<DoctorAvailabilityResponse>> futures = distinctDoctorIds.stream()
+                .map(doctorIdsToDoctors::get)
+                .map(doctor -> CompletableFuture.supplyAsync(() -> assembleAvailability(doctor,
+                        doctorIdsToIntervals.getOrDefault(doctor.id(), List.of()), from, to, slotLength), slotPool))
+                .toList();
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        slotPool.shutdownNow();
+    }
+
+    private Duration validate(List<Long> doctorIds, LocalDateTime from, LocalDateTime to, int slotMinutes) {
+        VisitProperties.Availability availability = visitProperties.getAvailability();
+        if (doctorIds.isEmpty() || doctorIds.size() > availability.getMaxDoctors()) {
+            throw new BadRequestException("Between 1 and " + availability.getMaxDoctors() + " doctors are allowed");
+        }
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("End of range must be after its start");
+        }
+        if (Duration.between(from, to).compareTo(availability.getMaxRange()) > 0) {
+            throw new BadRequestException("Range must not exceed " + availability.getMaxRange().toDays() + " days");
+        }
+        long rangeMinutes = Duration.between(from, to).toMinutes();
+        if (slotMinutes <= 0 || slotMinutes > rangeMinutes) {
+            throw new BadRequestException("Slot length must be positive and fit into the range");
+        }
+        if (rangeMinutes / slotMinutes * doctorIds.size() > availability.getMaxSlots()) {
+            throw new BadRequestException("Request must not cover more than " + availability.getMaxSlots()
+                    + " slots, use a longer slot, a shorter range or fewer doctors");
+        }
+        return Duration.ofMinutes(slotMinutes);
+    }
+
+    private DoctorAvailabilityResponse assembleAvailability(DoctorTimeZone doctor, List<VisitInterval> intervals,
+                                                            LocalDateTime from, LocalDateTime to,
+                                                            Duration slotLength) {
+        DoctorSchedule schedule = new DoctorSchedule();
+        intervals.forEach(interval -> schedule.add(interval.startDateTime(), interval.endDateTime()));
+        return new DoctorAvailabilityResponse(doctor.id(), doctor.timeZone(),
+                schedule.freeSlots(from, to, slotLength));
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.exception.TooManyRequestsException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@Component
+public class DoctorBookingLock {
+
+    private final Lock[] stripes;
+    private final Duration lockTimeout;
+
+    public DoctorBookingLock(VisitProperties visitProperties) {
+        VisitProperties.Booking booking = visitProperties.getBooking();
+        stripes = new Lock[booking.getLockStripes()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        lockTimeout = booking.getLockTimeout();
+    }
+
+    public <T> T withLock(Long doctorId, Supplier<T> action) {
+        return withLocks(List.of(doctorId), action);
+    }
+
+    public <T> T withLocks(Collection<Long> doctorIds, Supplier<T> action) {
+        int[] stripeIndexes = doctorIds.stream()
+                .mapToInt(doctorId -> Math.floorMod(doctorId.hashCode(), stripes.length))
+                .distinct()
+                .sorted()
+                .toArray();
+        int acquired = 0;
+        try {
+            for (int stripeIndex : stripeIndexes) {
+                acquire(stripes[stripeIndex]);
+                acquired++;
+            }
+            return action.get();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[stripeIndexes[i]].unlock();
+            }
+        }
+    }
+
+    private void acquire(Lock lock) {
+        try {
+            if (!lock.tryLock(lockTimeout.toMillis(), MILLISECONDS)) {
+                throw new TooManyRequestsException("Doctor schedule is busy, please retry");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new TooManyRequestsException("Doctor schedule is busy, please retry");
+        }
+    }
+
+}
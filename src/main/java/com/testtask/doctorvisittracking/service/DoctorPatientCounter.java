@@ -0,0 +1,52 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.entity.DoctorPatientCount;
+import com.testtask.doctorvisittracking.repository.DoctorPatientCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toMap;
+
+@RequiredArgsConstructor
+@Service
+public class DoctorPatientCounter {
+
+    private final DoctorPatientCountRepository doctorPatientCountRepository;
+    private final VisitProperties visitProperties;
+
+    public void registerVisit(Long doctorId, Long patientId) {
+        if (doctorPatientCountRepository.insertDoctorPatient(doctorId, patientId) > 0) {
+            doctorPatientCountRepository.incrementTotalPatients(doctorId);
+        }
+    }
+
+    public Map<Long, Long> getTotalPatients(Collection<Long> doctorIds) {
+        if (doctorIds.isEmpty()) {
+            return Map.of();
+        }
+        return doctorPatientCountRepository.findByDoctorIdIn(doctorIds).stream()
+                .collect(toMap(DoctorPatientCount::getDoctorId, DoctorPatientCount::getTotalPatients));
+    }
+
+    @Transactional
+    public void rebuild() {
+        doctorPatientCountRepository.insertMissingDoctorPatients();
+        doctorPatientCountRepository.recountTotalPatients();
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (visitProperties.getDoctorPatientCounter().isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+}
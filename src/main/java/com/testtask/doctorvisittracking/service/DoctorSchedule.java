@@ -0,0 +1,79 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.dto.FreeSlotDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+class DoctorSchedule {
+
+    private final NavigableMap<LocalDateTime, LocalDateTime> busyIntervals = new TreeMap<>();
+
+    synchronized boolean overlaps(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        Map.Entry<LocalDateTime, LocalDateTime> candidate = busyIntervals.floorEntry(endDateTime);
+        return candidate != null && !candidate.getValue().isBefore(startDateTime);
+    }
+
+    synchronized void add(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        LocalDateTime mergedStart = startDateTime;
+        LocalDateTime mergedEnd = endDateTime;
+        Map.Entry<LocalDateTime, LocalDateTime> lower = busyIntervals.floorEntry(startDateTime);
+        if (lower != null && !lower.getValue().isBefore(startDateTime)) {
+            mergedStart = lower.getKey();
+            mergedEnd = latest(mergedEnd, lower.getValue());
+            busyIntervals.remove(lower.getKey());
+        }
+        Map.Entry<LocalDateTime, LocalDateTime> upper = busyIntervals.ceilingEntry(mergedStart);
+        while (upper != null && !upper.getKey().isAfter(mergedEnd)) {
+            mergedEnd = latest(mergedEnd, upper.getValue());
+            busyIntervals.remove(upper.getKey());
+            upper = busyIntervals.ceilingEntry(mergedStart);
+        }
+        busyIntervals.put(mergedStart, mergedEnd);
+    }
+
+    synchronized List<FreeSlotDto> freeSlots(LocalDateTime from, LocalDateTime to, Duration slotLength) {
+        Map.Entry<LocalDateTime, LocalDateTime> lower = busyIntervals.floorEntry(from);
+        Iterator<Map.Entry<LocalDateTime, LocalDateTime>> busy = (lower == null
+                ? busyIntervals
+                : busyIntervals.tailMap(lower.getKey(), true)).entrySet().iterator();
+        Map.Entry<LocalDateTime, LocalDateTime> current = busy.hasNext() ? busy.next() : null;
+        List<FreeSlotDto> freeSlots = new ArrayList<>();
+        for (LocalDateTime start = from, end = from.plus(slotLength); !end.isAfter(to);
+             start = end, end = start.plus(slotLength)) {
+            while (current != null && current.getValue().isBefore(start)) {
+                current = busy.hasNext() ? busy.next() : null;
+            }
+            if (current == null || current.getKey().isAfter(end)) {
+                freeSlots.add(new FreeSlotDto(start, end));
+            }
+        }
+        return freeSlots;
+    }
+
+    synchronized int evictEndedBefore(LocalDateTime cutoff) {
+        int evicted = 0;
+        Map.Entry<LocalDateTime, LocalDateTime> first = busyIntervals.firstEntry();
+        while (first != null && first.getValue().isBefore(cutoff)) {
+            busyIntervals.pollFirstEntry();
+            evicted++;
+            first = busyIntervals.firstEntry();
+        }
+        return evicted;
+    }
+
+    synchronized int size() {
+        return busyIntervals.size();
+    }
+
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.VisitInterval;
+import com.testtask.doctorvisittracking.repository.VisitRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@Lazy(false)
+public class DoctorScheduleIndex {
+
+    private final Map<Long, DoctorSchedule> schedules = new ConcurrentHashMap<>();
+    private final VisitRepository visitRepository;
+    private final VisitProperties visitProperties;
+    private volatile boolean ready;
+    private volatile LocalDateTime evictedBefore = LocalDateTime.MIN;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isAuthoritative(LocalDateTime startDateTime) {
+        return visitProperties.getScheduleIndex().isAuthoritative() && !startDateTime.isBefore(evictedBefore);
+    }
+
+    public boolean overlaps(Long doctorId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        DoctorSchedule schedule = schedules.get(doctorId);
+        return schedule != null && schedule.overlaps(startDateTime, endDateTime);
+    }
+
+    public void add(Long doctorId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (visitProperties.getScheduleIndex().isEnabled()) {
+            schedules.compute(doctorId, (id, schedule) -> {
+                DoctorSchedule doctorSchedule = schedule == null ? new DoctorSchedule() : schedule;
+                doctorSchedule.add(startDateTime, endDateTime);
+                return doctorSchedule;
+            });
+        }
+    }
+
+    @Scheduled(cron = "${visits.schedule-index.eviction-cron:0 0 3 * * *}")
+    public void evictPastIntervals() {
+        if (ready) {
+            evictEndedBefore(getEvictionCutoff(LocalDateTime.now()));
+        }
+    }
+
+    int evictEndedBefore(LocalDateTime cutoff) {
+        evictedBefore = cutoff;
+        AtomicInteger evicted = new AtomicInteger();
+        schedules.keySet().forEach(doctorId -> schedules.computeIfPresent(doctorId, (id, schedule) -> {
+            evicted.addAndGet(schedule.evictEndedBefore(cutoff));
+            return schedule.size() == 0 ? null : schedule;
+        }));
+        log.info("Evicted {} intervals ended before {} from the doctor schedule index", evicted.get(), cutoff);
+        return evicted.get();
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!visitProperties.getScheduleIndex().isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = getEvictionCutoff(LocalDateTime.now());
+        evictedBefore = cutoff;
+        try (Stream<VisitInterval> intervals = visitRepository.streamIntervals(cutoff)) {
+            intervals.forEach(interval ->
+                    add(interval.doctorId(), interval.startDateTime(), interval.endDateTime()));
+        }
+        ready = true;
+        log.info("Doctor schedule index warmed up for {} doctors", schedules.size());
+    }
+
+    private LocalDateTime getEvictionCutoff(LocalDateTime now) {
+        return now.minus(visitProperties.getArchive().getHorizon());
+    }
+
+}
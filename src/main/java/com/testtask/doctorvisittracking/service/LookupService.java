@@ -0,0 +1,37 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.dto.DoctorInfo;
+import com.testtask.doctorvisittracking.dto.PatientInfo;
+import com.testtask.doctorvisittracking.repository.DoctorRepository;
+import com.testtask.doctorvisittracking.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+@Service
+public class LookupService {
+
+    public static final String DOCTORS = "doctors";
+    public static final String PATIENTS = "patients";
+
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+
+    @Cacheable(cacheNames = DOCTORS, unless = "#result == null")
+    public Optional<DoctorInfo> findDoctor(Long id) {
+        return doctorRepository.findById(id)
+                .map(doctor -> new DoctorInfo(doctor.getId(), doctor.getFirstName(), doctor.getLastName(),
+                        ZoneId.of(doctor.getTimeZone())));
+    }
+
+    @Cacheable(cacheNames = PATIENTS, unless = "#result == null")
+    public Optional<PatientInfo> findPatient(Long id) {
+        return patientRepository.findById(id)
+                .map(patient -> new PatientInfo(patient.getId(), patient.getFirstName(), patient.getLastName()));
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.exception.BadRequestException;
+
+import java.util.Base64;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+final class PatientCursor {
+
+    private static final String PREFIX = "patient:";
+
+    private PatientCursor() {
+    }
+
+    static String encode(long lastPatientId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + lastPatientId).getBytes(UTF_8));
+    }
+
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException exception) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testtask.doctorvisittracking.dto.DoctorDto;
+import com.testtask.doctorvisittracking.dto.PatientDto;
+import com.testtask.doctorvisittracking.dto.PatientVisitRow;
+import com.testtask.doctorvisittracking.dto.VisitDto;
+import com.testtask.doctorvisittracking.repository.VisitRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static com.fasterxml.jackson.core.JsonGenerator.Feature.AUTO_CLOSE_TARGET;
+
+@RequiredArgsConstructor
+@Service
+public class PatientExportService {
+
+    private final VisitRepository visitRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportPatientsWithVisits(String search, List<Long> doctorIds, OutputStream outputStream)
+            throws IOException {
+        try (Stream<PatientVisitRow> rows = streamRows(search, doctorIds);
+             JsonGenerator generator = objectMapper.createGenerator(outputStream).disable(AUTO_CLOSE_TARGET)) {
+            Iterator<PatientVisitRow> iterator = rows.iterator();
+            PatientVisitRow patientRow = null;
+            List<VisitDto> visitDtos = new ArrayList<>();
+            while (iterator.hasNext()) {
+                PatientVisitRow row = iterator.next();
+                if (patientRow != null && !patientRow.patientId().equals(row.patientId())) {
+                    writePatient(generator, patientRow, visitDtos);
+                    visitDtos = new ArrayList<>();
+                }
+                patientRow = row;
+                visitDtos.add(assembleVisitDto(row));
+            }
+            if (patientRow != null) {
+                writePatient(generator, patientRow, visitDtos);
+            }
+        }
+    }
+
+    private Stream<PatientVisitRow> streamRows(String search, List<Long> doctorIds) {
+        String normalizedSearch = search.isEmpty() ? null : search.toLowerCase(Locale.ROOT);
+        return doctorIds.isEmpty()
+                ? visitRepository.streamPatientVisitRows(normalizedSearch)
+                : visitRepository.streamPatientVisitRowsByDoctorIds(normalizedSearch, doctorIds);
+    }
+
+    private void writePatient(JsonGenerator generator, PatientVisitRow patientRow, List<VisitDto> visitDtos)
+            throws IOException {
+        generator.writeObject(new PatientDto(patientRow.patientFirstName(), patientRow.patientLastName(), visitDtos));
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    private VisitDto assembleVisitDto(PatientVisitRow row) {
+        long totalPatients = row.totalPatients() != null ? row.totalPatients() : 0L;
+        return new VisitDto(row.startDateTime().toString(), row.endDateTime().toString(),
+                new DoctorDto(row.doctorFirstName(), row.doctorLastName(), totalPatients));
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.PatientListing;
+import com.testtask.doctorvisittracking.dto.PatientMatch;
+import com.testtask.doctorvisittracking.dto.VisitEventMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.web.PagedModel;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Locale.ROOT;
+
+@Component
+public class PatientListingCache implements VisitEventSubscriber {
+
+    private final VisitService visitService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate primaryTransaction;
+    private final boolean enabled;
+    private final Cache<ListingKey, CachedListing> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PatientListingCache(VisitService visitService, ObjectMapper objectMapper, VisitProperties visitProperties,
+                               MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.visitService = visitService;
+        this.objectMapper = objectMapper;
+        primaryTransaction = new TransactionTemplate(transactionManager);
+        VisitProperties.ListingCache listingCache = visitProperties.getListingCache();
+        enabled = listingCache.isEnabled();
+        cache = Caffeine.newBuilder()
+                .maximumSize(listingCache.getMaximumSize())
+                .expireAfterWrite(listingCache.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "patientListings");
+    }
+
+    public CachedListing getPatients(int page, int size, String search, PatientMatch match, List<Long> doctorIds) {
+        ListingKey key = new ListingKey(page, size, search.toLowerCase(ROOT), match, doctorIds.stream()
+                .distinct()
+                .sorted()
+                .toList());
+        CachedListing cached = enabled ? cache.getIfPresent(key) : null;
+        if (cached != null) {
+            return cached;
+        }
+        if (!enabled) {
+            return load(key);
+        }
+        long generation = invalidations.get();
+        CachedListing loaded = primaryTransaction.execute(status -> load(key));
+        store(key, loaded, generation);
+        return loaded;
+    }
+
+    private CachedListing load(ListingKey key) {
+        PatientListing listing = visitService.getPatientListing(key.page(), key.size(), key.search(), key.match(),
+                key.doctorIds());
+        byte[] body = serialize(listing);
+        return new CachedListing(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"",
+                Set.copyOf(listing.patientIds()), listing.doctorIds(), Set.copyOf(key.doctorIds()));
+    }
+
+    private synchronized void store(ListingKey key, CachedListing loaded, long generation) {
+        if (invalidations.get() == generation) {
+            cache.put(key, loaded);
+        }
+    }
+
+    @EventListener
+    public void onVisitBooked(VisitBookedEvent event) {
+        invalidate(event.doctorId(), event.patientId());
+    }
+
+    @Override
+    public void onVisitEvents(List<VisitEventMessage> events) {
+        events.forEach(event -> invalidate(event.doctorId(), event.patientId()));
+    }
+
+    private synchronized void invalidate(Long doctorId, Long patientId) {
+        invalidations.incrementAndGet();
+        cache.asMap().values().removeIf(listing -> listing.isAffectedBy(doctorId, patientId));
+    }
+
+    private byte[] serialize(PatientListing listing) {
+        try {
+            return objectMapper.writeValueAsBytes(new PagedModel<>(listing.page()));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Failed to serialize patient listing", exception);
+        }
+    }
+
+    public record CachedListing(byte[] body, String etag, Set<Long> patientIds, Set<Long> visitDoctorIds,
+                                Set<Long> doctorFilter) {
+
+        boolean isAffectedBy(Long doctorId, Long patientId) {
+            return visitDoctorIds.contains(doctorId)
+                    || patientIds.contains(patientId) && (doctorFilter.isEmpty() || doctorFilter.contains(doctorId));
+        }
+
+    }
+
+    private record ListingKey(int page, int size, String search, PatientMatch match, List<Long> doctorIds) {
+    }
+
+}
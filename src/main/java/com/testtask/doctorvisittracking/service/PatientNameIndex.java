@@ -0,0 +1,209 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.PatientInfo;
+import com.testtask.doctorvisittracking.dto.PatientMatch;
+import com.testtask.doctorvisittracking.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+import static java.util.Locale.ROOT;
+import static java.util.Objects.requireNonNullElse;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class PatientNameIndex {
+
+    private static final String PADDING = "$$";
+
+    private final NavigableMap<String, NavigableSet<Long>> termsToIds = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> trigramsToTerms = new ConcurrentHashMap<>();
+    private final Map<Long, List<String>> idsToTerms = new ConcurrentHashMap<>();
+    private final PatientRepository patientRepository;
+    private final VisitProperties visitProperties;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Long> find(String search, PatientMatch match, long afterId, int limit) {
+        List<List<NavigableSet<Long>>> tokenSets = new ArrayList<>();
+        for (String token : tokenize(search)) {
+            List<NavigableSet<Long>> sets = match == PatientMatch.FUZZY ? findFuzzy(token) : findPrefix(token);
+            if (sets.isEmpty()) {
+                return List.of();
+            }
+            tokenSets.add(sets);
+        }
+        if (tokenSets.isEmpty()) {
+            return List.of();
+        }
+        tokenSets.sort(Comparator.comparingInt(List::size));
+        PriorityQueue<Map.Entry<Long, Iterator<Long>>> heads = new PriorityQueue<>(Map.Entry.comparingByKey());
+        for (NavigableSet<Long> ids : tokenSets.getFirst()) {
+            advance(heads, ids.tailSet(afterId, false).iterator());
+        }
+        List<Long> ids = new ArrayList<>();
+        long previousId = afterId;
+        while (!heads.isEmpty() && ids.size() < limit) {
+            Map.Entry<Long, Iterator<Long>> head = heads.poll();
+            long id = head.getKey();
+            advance(heads, head.getValue());
+            if (id != previousId && matchesEveryToken(id, tokenSets)) {
+                ids.add(id);
+            }
+            previousId = id;
+        }
+        return ids;
+    }
+
+    public synchronized void put(Long id, String firstName, String lastName) {
+        remove(id);
+        List<String> terms = new ArrayList<>(tokenize(requireNonNullElse(firstName, "") + " "
+                + requireNonNullElse(lastName, "")));
+        idsToTerms.put(id, terms);
+        for (String term : terms) {
+            termsToIds.computeIfAbsent(term, key -> new ConcurrentSkipListSet<>()).add(id);
+            for (String trigram : trigrams(term)) {
+                trigramsToTerms.computeIfAbsent(trigram, gram -> ConcurrentHashMap.newKeySet()).add(term);
+            }
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        List<String> terms = idsToTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            NavigableSet<Long> ids = termsToIds.get(term);
+            if (ids == null) {
+                continue;
+            }
+            ids.remove(id);
+            if (!ids.isEmpty()) {
+                continue;
+            }
+            termsToIds.remove(term);
+            for (String trigram : trigrams(term)) {
+                Set<String> gramTerms = trigramsToTerms.get(trigram);
+                if (gramTerms != null) {
+                    gramTerms.remove(term);
+                    if (gramTerms.isEmpty()) {
+                        trigramsToTerms.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!visitProperties.getPatientSearch().isEnabled()) {
+            return;
+        }
+        try (Stream<PatientInfo> names = patientRepository.streamNames()) {
+            names.forEach(name -> put(name.id(), name.firstName(), name.lastName()));
+        }
+        ready = true;
+        log.info("Patient name index warmed up for {} patients and {} terms", idsToTerms.size(), termsToIds.size());
+    }
+
+    private List<NavigableSet<Long>> findPrefix(String prefix) {
+        return new ArrayList<>(termsToIds.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+    }
+
+    private List<NavigableSet<Long>> findFuzzy(String token) {
+        int maxEdits = token.length() <= 4 ? 1 : visitProperties.getPatientSearch().getMaxEdits();
+        List<String> tokenTrigrams = trigrams(token);
+        Map<String, Integer> sharedTrigrams = new HashMap<>();
+        for (String trigram : tokenTrigrams) {
+            trigramsToTerms.getOrDefault(trigram, Set.of())
+                    .forEach(term -> sharedTrigrams.merge(term, 1, Integer::sum));
+        }
+        int minShared = Math.max(1, tokenTrigrams.size() - 3 * maxEdits);
+        List<NavigableSet<Long>> sets = new ArrayList<>();
+        sharedTrigrams.forEach((term, shared) -> {
+            NavigableSet<Long> ids = termsToIds.get(term);
+            if (ids != null && shared >= minShared && isWithinEdits(token, term, maxEdits)) {
+                sets.add(ids);
+            }
+        });
+        return sets;
+    }
+
+    private static boolean matchesEveryToken(long id, List<List<NavigableSet<Long>>> tokenSets) {
+        for (int i = 1; i < tokenSets.size(); i++) {
+            if (tokenSets.get(i).stream().noneMatch(ids -> ids.contains(id))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void advance(PriorityQueue<Map.Entry<Long, Iterator<Long>>> heads, Iterator<Long> ids) {
+        if (ids.hasNext()) {
+            heads.add(Map.entry(ids.next(), ids));
+        }
+    }
+
+    static boolean isWithinEdits(String source, String target, int maxEdits) {
+        if (Math.abs(source.length() - target.length()) > maxEdits) {
+            return false;
+        }
+        int[] previous = new int[target.length() + 1];
+        int[] current = new int[target.length() + 1];
+        for (int j = 0; j <= target.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= source.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= target.length(); j++) {
+                int substitution = previous[j - 1] + (source.charAt(i - 1) == target.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[target.length()] <= maxEdits;
+    }
+
+    private static List<String> trigrams(String term) {
+        String padded = PADDING + term + PADDING.charAt(0);
+        List<String> trigrams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(ROOT).split("\\s+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+}
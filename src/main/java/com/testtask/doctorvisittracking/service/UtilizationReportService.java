@@ -0,0 +1,169 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.DailyUtilizationDto;
+import com.testtask.doctorvisittracking.dto.DoctorTimeZone;
+import com.testtask.doctorvisittracking.dto.DoctorUtilizationDto;
+import com.testtask.doctorvisittracking.dto.UtilizationReportResponse;
+import com.testtask.doctorvisittracking.dto.UtilizationRow;
+import com.testtask.doctorvisittracking.exception.BadRequestException;
+import com.testtask.doctorvisittracking.exception.ResourceNotFoundException;
+import com.testtask.doctorvisittracking.repository.DoctorRepository;
+import com.testtask.doctorvisittracking.repository.VisitReportRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+import static com.testtask.doctorvisittracking.service.VisitMetrics.UTILIZATION_REPORT;
+import static java.util.Comparator.comparing;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.groupingBy;
+import static org.springframework.data.domain.PageRequest.of;
+
+@Slf4j
+@Service
+public class UtilizationReportService {
+
+    private final DoctorRepository doctorRepository;
+    private final VisitReportRepository visitReportRepository;
+    private final VisitMetrics visitMetrics;
+    private final VisitProperties.Report report;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool shardPool;
+
+    public UtilizationReportService(DoctorRepository doctorRepository, VisitReportRepository visitReportRepository,
+                                    VisitMetrics visitMetrics, VisitProperties visitProperties,
+                                    PlatformTransactionManager transactionManager) {
+        this.doctorRepository = doctorRepository;
+        this.visitReportRepository = visitReportRepository;
+        this.visitMetrics = visitMetrics;
+        report = visitProperties.getReport();
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        shardPool = new ForkJoinPool(report.getParallelism());
+    }
+
+    public UtilizationReportResponse getUtilization(List<Long> doctorIds, LocalDate from, LocalDate to) {
+        validate(doctorIds, from, to);
+        return visitMetrics.time(UTILIZATION_REPORT, () -> {
+            long deadline = System.nanoTime() + report.getLatencyBudget().toNanos();
+            List<DoctorTimeZone> doctors = readOnlyTransaction.execute(status -> findDoctors(doctorIds));
+            List<List<DoctorTimeZone>> shards = IntStream.range(0, (doctors.size() + report.getShardSize() - 1)
+                            / report.getShardSize())
+                    .mapToObj(i -> doctors.subList(i * report.getShardSize(),
+                            Math.min((i + 1) * report.getShardSize(), doctors.size())))
+                    .toList();
+            List<CompletableFuture<List<DoctorUtilizationDto>>> futures = shards.stream()
+                    .map(shard -> CompletableFuture.supplyAsync(() -> aggregate(shard, from, to, deadline),
+                            shardPool))
+                    .toList();
+            boolean complete = awaitWithinBudget(futures, deadline);
+            List<DoctorUtilizationDto> utilization = futures.stream()
+                    .filter(future -> future.isDone() && !future.isCompletedExceptionally())
+                    .flatMap(future -> future.join().stream())
+                    .sorted(comparing(DoctorUtilizationDto::doctorId))
+                    .toList();
+            return new UtilizationReportResponse(from, to, complete, utilization);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shardPool.shutdownNow();
+    }
+
+    private void validate(List<Long> doctorIds, LocalDate from, LocalDate to) {
+        if (doctorIds.size() > report.getMaxDoctors()) {
+            throw new BadRequestException("At most " + report.getMaxDoctors() + " doctors are allowed");
+        }
+        if (to.isBefore(from)) {
+            throw new BadRequestException("End of range must not be before its start");
+        }
+        if (Duration.between(from.atStartOfDay(), to.plusDays(1).atStartOfDay())
+                .compareTo(report.getMaxRange()) > 0) {
+            throw new BadRequestException("Range must not exceed " + report.getMaxRange().toDays() + " days");
+        }
+    }
+
+    private List<DoctorTimeZone> findDoctors(List<Long> doctorIds) {
+        if (doctorIds.isEmpty()) {
+            List<DoctorTimeZone> doctors = doctorRepository.findAllTimeZones(of(0, report.getMaxDoctors() + 1));
+            if (doctors.size() > report.getMaxDoctors()) {
+                throw new BadRequestException("At most " + report.getMaxDoctors()
+                        + " doctors are allowed, pass doctorIds to select them");
+            }
+            return doctors;
+        }
+        List<DoctorTimeZone> doctors = doctorRepository.findTimeZonesByIdIn(doctorIds);
+        if (doctors.size() != doctorIds.stream().distinct().count()) {
+            throw new ResourceNotFoundException("Doctor not found");
+        }
+        return doctors;
+    }
+
+    private boolean awaitWithinBudget(List<CompletableFuture<List<DoctorUtilizationDto>>> futures, long deadline) {
+        boolean complete = true;
+        for (CompletableFuture<List<DoctorUtilizationDto>> future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), NANOSECONDS);
+            } catch (ExecutionException exception) {
+                log.warn("Utilization report shard failed: {}", exception.getCause().getMessage());
+                complete = false;
+            } catch (TimeoutException exception) {
+                long pending = futures.stream()
+                        .filter(shard -> shard.cancel(true))
+                        .count();
+                log.warn("Utilization report exceeded its {} budget, {} of {} shards dropped",
+                        report.getLatencyBudget(), pending, futures.size());
+                return false;
+            } catch (InterruptedException exception) {
+                futures.forEach(shard -> shard.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(exception);
+            }
+        }
+        return complete;
+    }
+
+    private List<DoctorUtilizationDto> aggregate(List<DoctorTimeZone> doctors, LocalDate from, LocalDate to,
+                                                 long deadline) {
+        Duration remaining = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+        List<UtilizationRow> rows = readOnlyTransaction.execute(status -> visitReportRepository.findUtilization(
+                doctors.stream().map(DoctorTimeZone::id).toList(), from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay(), remaining));
+        Map<Long, List<UtilizationRow>> doctorIdsToRows = rows.stream()
+                .filter(row -> row.doctorId() != null)
+                .collect(groupingBy(UtilizationRow::doctorId));
+        return doctors.stream()
+                .map(doctor -> assembleUtilization(doctor, doctorIdsToRows.getOrDefault(doctor.id(), List.of())))
+                .toList();
+    }
+
+    private DoctorUtilizationDto assembleUtilization(DoctorTimeZone doctor, List<UtilizationRow> rows) {
+        UtilizationRow total = rows.stream()
+                .filter(row -> row.date() == null)
+                .findFirst()
+                .orElse(new UtilizationRow(doctor.id(), null, 0, 0, 0));
+        List<DailyUtilizationDto> days = rows.stream()
+                .filter(row -> row.date() != null)
+                .sorted(comparing(UtilizationRow::date))
+                .map(row -> new DailyUtilizationDto(row.date(), row.visits(), row.bookedMinutes(),
+                        row.distinctPatients()))
+                .toList();
+        return new DoctorUtilizationDto(doctor.id(), doctor.timeZone(), total.visits(), total.bookedMinutes(),
+                total.distinctPatients(), days);
+    }
+
+}
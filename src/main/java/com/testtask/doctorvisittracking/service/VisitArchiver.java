@@ -0,0 +1,74 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.repository.VisitPartitionRepository;
+import com.testtask.doctorvisittracking.repository.VisitRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.springframework.data.domain.PageRequest.of;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+@Lazy(false)
+@ConditionalOnProperty(prefix = "visits.archive", name = "enabled", havingValue = "true")
+public class VisitArchiver {
+
+    private final VisitRepository visitRepository;
+    private final VisitPartitionRepository visitPartitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final VisitProperties visitProperties;
+
+    @Scheduled(cron = "${visits.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        archive(LocalDateTime.now());
+    }
+
+    void archive(LocalDateTime now) {
+        VisitProperties.Archive archive = visitProperties.getArchive();
+        LocalDateTime cutoff = now.minus(archive.getHorizon());
+        long archived = archiveVisitsEndedBefore(cutoff, archive.getBatchSize());
+        List<YearMonth> partitions = visitPartitionRepository.findMonthlyPartitions();
+        int dropped = dropEmptyPartitionsBefore(partitions, YearMonth.from(cutoff));
+        log.info("Archived {} visits ended before {} and dropped {} partitions", archived, cutoff, dropped);
+    }
+
+    private long archiveVisitsEndedBefore(LocalDateTime cutoff, int batchSize) {
+        long archived = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<Long> ids = visitRepository.findIdsEndedBefore(cutoff, of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                visitRepository.copyToArchive(ids, cutoff);
+                return visitRepository.deleteArchived(ids, cutoff);
+            });
+            archived += batch;
+        } while (batch == batchSize);
+        return archived;
+    }
+
+    private int dropEmptyPartitionsBefore(List<YearMonth> partitions, YearMonth cutoffMonth) {
+        int dropped = 0;
+        for (YearMonth partition : partitions) {
+            if (partition.isBefore(cutoffMonth) && visitPartitionRepository.isEmpty(partition)) {
+                visitPartitionRepository.dropMonthlyPartition(partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+}
@@ -0,0 +1,4 @@
+package com.testtask.doctorvisittracking.service;
+
+public record VisitBookedEvent(Long doctorId, Long patientId) {
+}
@@ -0,0 +1,81 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.VisitEventMessage;
+import com.testtask.doctorvisittracking.entity.VisitEvent;
+import com.testtask.doctorvisittracking.repository.VisitEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.data.domain.PageRequest.of;
+
+@Slf4j
+@Service
+@Lazy(false)
+@ConditionalOnProperty(prefix = "visits.outbox", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class VisitEventRelay {
+
+    private final VisitEventRepository visitEventRepository;
+    private final List<VisitEventSubscriber> subscribers;
+    private final TransactionTemplate transactionTemplate;
+    private final VisitProperties.Outbox outbox;
+
+    public VisitEventRelay(VisitEventRepository visitEventRepository, ObjectProvider<VisitEventSubscriber> subscribers,
+                           TransactionTemplate transactionTemplate, VisitProperties visitProperties) {
+        this.visitEventRepository = visitEventRepository;
+        this.subscribers = subscribers.orderedStream().toList();
+        this.transactionTemplate = transactionTemplate;
+        outbox = visitProperties.getOutbox();
+    }
+
+    @Scheduled(fixedDelayString = "${visits.outbox.relay-interval:1s}")
+    public void relay() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            int published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch());
+            } while (published == outbox.getBatchSize());
+        } catch (RuntimeException exception) {
+            log.warn("Visit event delivery failed, the batch will be retried: {}", exception.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${visits.outbox.cleanup-cron:0 0 4 * * *}")
+    public void deletePublished() {
+        LocalDateTime publishedBefore = LocalDateTime.now().minus(outbox.getRetention());
+        int deleted = transactionTemplate.execute(status ->
+                visitEventRepository.deletePublishedBefore(publishedBefore));
+        log.info("Deleted {} visit events published before {}", deleted, publishedBefore);
+    }
+
+    private int publishBatch() {
+        List<VisitEvent> events = visitEventRepository.findUnpublished(of(0, outbox.getBatchSize()));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<VisitEventMessage> messages = events.stream()
+                .map(this::assembleMessage)
+                .toList();
+        subscribers.forEach(subscriber -> subscriber.onVisitEvents(messages));
+        visitEventRepository.markPublished(messages.stream().map(VisitEventMessage::eventId).toList(),
+                LocalDateTime.now());
+        return events.size();
+    }
+
+    private VisitEventMessage assembleMessage(VisitEvent event) {
+        return new VisitEventMessage(event.getId(), event.getEventType(), event.getVisitId(), event.getDoctorId(),
+                event.getPatientId(), event.getStartDateTime(), event.getEndDateTime(), event.getCreatedAt());
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.dto.VisitEventMessage;
+
+import java.util.List;
+
+public interface VisitEventSubscriber {
+
+    void onVisitEvents(List<VisitEventMessage> events);
+
+}
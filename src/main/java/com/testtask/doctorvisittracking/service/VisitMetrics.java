@@ -0,0 +1,92 @@
+package com.testtask.doctorvisittracking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toUnmodifiableMap;
+
+@Component
+public class VisitMetrics {
+
+    public static final String CREATE_VISIT = "visits.create";
+    public static final String CREATE_VISITS = "visits.create.batch";
+    public static final String GET_PATIENTS = "visits.patients";
+    public static final String UTILIZATION_REPORT = "visits.report.utilization";
+    public static final String PHASE_LOOKUP = "lookup";
+    public static final String PHASE_CONFLICT_CHECK = "conflict_check";
+    public static final String PHASE_INSERT = "insert";
+    public static final String PHASE_PATIENT_QUERY = "patient_query";
+    public static final String PHASE_VISIT_QUERY = "visit_query";
+    public static final String PHASE_COUNT_AGGREGATION = "count_aggregation";
+    public static final String PHASE_DTO_ASSEMBLY = "dto_assembly";
+    public static final String ERROR_CONFLICT = "conflict";
+    public static final String ERROR_NOT_FOUND = "not_found";
+
+    private static final Map<String, List<String>> OPERATION_PHASES = Map.of(
+            CREATE_VISIT, List.of(PHASE_LOOKUP, PHASE_CONFLICT_CHECK, PHASE_INSERT),
+            GET_PATIENTS, List.of(PHASE_PATIENT_QUERY, PHASE_VISIT_QUERY, PHASE_COUNT_AGGREGATION,
+                    PHASE_DTO_ASSEMBLY));
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary fetchedRows;
+    private final Map<String, Timer> operationTimers;
+    private final Map<String, Map<String, Timer>> phaseTimers;
+    private final Map<String, Counter> errorCounters;
+
+    public VisitMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        fetchedRows = DistributionSummary.builder(GET_PATIENTS + ".rows")
+                .description("Visit rows fetched per patient listing request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        operationTimers = List.of(CREATE_VISIT, CREATE_VISITS, GET_PATIENTS, UTILIZATION_REPORT).stream()
+                .collect(toUnmodifiableMap(identity(), operation -> Timer.builder(operation)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+        phaseTimers = OPERATION_PHASES.entrySet().stream()
+                .collect(toUnmodifiableMap(Map.Entry::getKey, operation -> operation.getValue().stream()
+                        .collect(toUnmodifiableMap(identity(), phase -> Timer.builder(operation.getKey() + ".phase")
+                                .tag("phase", phase)
+                                .publishPercentileHistogram()
+                                .register(meterRegistry)))));
+        errorCounters = List.of(ERROR_CONFLICT, ERROR_NOT_FOUND).stream()
+                .collect(toUnmodifiableMap(identity(), type -> meterRegistry.counter("visits.errors", "type", type)));
+    }
+
+    public <T> T time(String operation, Supplier<T> action) {
+        return getMeter(operationTimers, operation).record(action);
+    }
+
+    public Timer.Sample startPhase() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stopPhase(Timer.Sample sample, String operation, String phase) {
+        sample.stop(getMeter(getMeter(phaseTimers, operation), phase));
+    }
+
+    public void recordFetchedRows(int rows) {
+        fetchedRows.record(rows);
+    }
+
+    public void recordError(String type) {
+        getMeter(errorCounters, type).increment();
+    }
+
+    private static <M> M getMeter(Map<String, M> meters, String name) {
+        M meter = meters.get(name);
+        if (meter == null) {
+            throw new IllegalArgumentException("Unknown metric: " + name);
+        }
+        return meter;
+    }
+
+}
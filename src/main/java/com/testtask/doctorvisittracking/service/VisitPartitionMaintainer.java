@@ -0,0 +1,46 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.repository.VisitPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+@Lazy(false)
+@ConditionalOnProperty(prefix = "visits.partitions", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class VisitPartitionMaintainer {
+
+    private final VisitPartitionRepository visitPartitionRepository;
+    private final VisitProperties visitProperties;
+
+    @Scheduled(cron = "${visits.partitions.cron:0 0 3 * * *}")
+    public void addPartitions() {
+        addPartitions(LocalDate.now());
+    }
+
+    void addPartitions(LocalDate today) {
+        List<YearMonth> partitions = visitPartitionRepository.findMonthlyPartitions();
+        if (partitions.isEmpty()) {
+            return;
+        }
+        YearMonth lastMonth = YearMonth.from(today).plusMonths(visitProperties.getPartitions().getMonthsAhead());
+        int added = 0;
+        for (YearMonth month = partitions.getLast().plusMonths(1); !month.isAfter(lastMonth);
+             month = month.plusMonths(1)) {
+            visitPartitionRepository.addMonthlyPartition(month);
+            added++;
+        }
+        log.info("Added {} visit partitions through {}", added, lastMonth);
+    }
+
+}
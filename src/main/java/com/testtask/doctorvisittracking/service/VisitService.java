@@ -1,107 +1,399 @@
 package com.testtask.doctorvisittracking.service;
 
+import com.testtask.doctorvisittracking.config.VisitProperties;
 import com.testtask.doctorvisittracking.dto.*;
 import com.testtask.doctorvisittracking.entity.Doctor;
 import com.testtask.doctorvisittracking.entity.Patient;
 import com.testtask.doctorvisittracking.entity.Visit;
+import com.testtask.doctorvisittracking.entity.VisitEvent;
+import com.testtask.doctorvisittracking.entity.VisitEventType;
 import com.testtask.doctorvisittracking.exception.BadRequestException;
+import com.testtask.doctorvisittracking.exception.BookingConflictException;
 import com.testtask.doctorvisittracking.exception.ResourceNotFoundException;
 import com.testtask.doctorvisittracking.repository.DoctorRepository;
 import com.testtask.doctorvisittracking.repository.PatientRepository;
+import com.testtask.doctorvisittracking.repository.PatientSearchRepository;
+import com.testtask.doctorvisittracking.repository.VisitEventRepository;
 import com.testtask.doctorvisittracking.repository.VisitRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 
-import static java.time.OffsetDateTime.parse;
-import static java.time.format.DateTimeFormatter.ofPattern;
+import static com.testtask.doctorvisittracking.dto.BatchItemStatus.*;
+import static com.testtask.doctorvisittracking.service.VisitMetrics.*;
+import static java.util.Comparator.naturalOrder;
 import static java.util.function.Function.identity;
-import static java.util.stream.Collectors.counting;
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 import static org.springframework.data.domain.PageRequest.of;
 
 @RequiredArgsConstructor
 @Service
 public class VisitService {
 
-    private static final DateTimeFormatter FORMATTER = ofPattern("yyyy-MM-dd HH:mm:ssXXX");
-
+    private final LookupService lookupService;
     private final PatientRepository patientRepository;
+    private final PatientSearchRepository patientSearchRepository;
     private final DoctorRepository doctorRepository;
     private final VisitRepository visitRepository;
+    private final VisitEventRepository visitEventRepository;
+    private final DoctorPatientCounter doctorPatientCounter;
+    private final DoctorBookingLock doctorBookingLock;
+    private final DoctorScheduleIndex doctorScheduleIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final VisitProperties visitProperties;
+    private final VisitMetrics visitMetrics;
+    private final PatientNameIndex patientNameIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Transactional
     public VisitResponse createVisit(VisitRequest visitRequest) {
-        Doctor doctor = doctorRepository.findById(visitRequest.getDoctorId())
+        validateDuration(visitRequest);
+        return visitMetrics.time(CREATE_VISIT, () -> doctorBookingLock.withLock(visitRequest.getDoctorId(), () -> {
+            VisitResponse visitResponse = transactionTemplate.execute(status -> bookVisit(visitRequest));
+            doctorScheduleIndex.add(visitRequest.getDoctorId(), visitResponse.visitStartDateTime(),
+                    visitResponse.visitEndDateTime());
+            eventPublisher.publishEvent(new VisitBookedEvent(visitRequest.getDoctorId(), visitRequest.getPatientId()));
+            return visitResponse;
+        }));
+    }
+
+    private VisitResponse bookVisit(VisitRequest visitRequest) {
+        Timer.Sample lookup = visitMetrics.startPhase();
+        DoctorInfo doctor = lookupService.findDoctor(visitRequest.getDoctorId())
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found"));
-        Patient patient = patientRepository.findById(visitRequest.getPatientId())
+        PatientInfo patient = lookupService.findPatient(visitRequest.getPatientId())
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found"));
-        ZoneId doctorZone = ZoneId.of(doctor.getTimeZone());
-        LocalDateTime startLocalDateTimeDoctorZone = convertToDoctorZone(visitRequest.getStartDateTime(), doctorZone);
-        LocalDateTime endLocalDateTimeDoctorZone = convertToDoctorZone(visitRequest.getEndDateTime(), doctorZone);
-        Optional<Visit> existingVisit = visitRepository.findBookedVisit(startLocalDateTimeDoctorZone,
-                endLocalDateTimeDoctorZone, doctor.getId());
-        if (existingVisit.isPresent()) {
-            throw new BadRequestException("Doctor is already booked for this time");
+        if (visitProperties.getBooking().isDatabaseLock()) {
+            doctorRepository.findByIdForUpdate(doctor.id())
+                    .orElseThrow(() -> new ResourceNotFoundException("Doctor not found"));
+        }
+        visitMetrics.stopPhase(lookup, CREATE_VISIT, PHASE_LOOKUP);
+        Visit visit = assembleVisit(visitRequest, doctor.timeZone(), doctorRepository.getReferenceById(doctor.id()),
+                patientRepository.getReferenceById(patient.id()));
+        Timer.Sample conflictCheck = visitMetrics.startPhase();
+        boolean booked = isBooked(doctor.id(), visit.getStartDateTime(), visit.getEndDateTime());
+        visitMetrics.stopPhase(conflictCheck, CREATE_VISIT, PHASE_CONFLICT_CHECK);
+        if (booked) {
+            throw new BookingConflictException("Doctor is already booked for this time");
+        }
+        Timer.Sample insert = visitMetrics.startPhase();
+        visitRepository.save(visit);
+        visitEventRepository.save(assembleVisitEvent(visit));
+        doctorPatientCounter.registerVisit(doctor.id(), patient.id());
+        visitMetrics.stopPhase(insert, CREATE_VISIT, PHASE_INSERT);
+        return new VisitResponse(patient.firstName(), patient.lastName(), doctor.firstName(), doctor.lastName(),
+                visit.getStartDateTime(), visit.getEndDateTime());
+    }
+
+    public List<VisitBatchItemResponse> createVisits(List<VisitRequest> visitRequests) {
+        Set<Long> doctorIds = visitRequests.stream()
+                .map(VisitRequest::getDoctorId)
+                .collect(toSet());
+        return visitMetrics.time(CREATE_VISITS, () -> doctorBookingLock.withLocks(doctorIds, () -> {
+            List<VisitBatchItemResponse> responses = transactionTemplate.execute(status ->
+                    bookVisits(visitRequests, doctorIds));
+            responses.stream()
+                    .filter(response -> response.status() == BOOKED)
+                    .forEach(response -> {
+                        VisitRequest visitRequest = visitRequests.get(response.index());
+                        doctorScheduleIndex.add(visitRequest.getDoctorId(), response.visit().visitStartDateTime(),
+                                response.visit().visitEndDateTime());
+                        eventPublisher.publishEvent(new VisitBookedEvent(visitRequest.getDoctorId(),
+                                visitRequest.getPatientId()));
+                    });
+            return responses;
+        }));
+    }
+
+    void validateDuration(VisitRequest visitRequest) {
+        String durationError = findDurationError(visitRequest);
+        if (durationError != null) {
+            throw new BadRequestException(durationError);
+        }
+    }
+
+    private String findDurationError(VisitRequest visitRequest) {
+        Duration maxVisitDuration = visitProperties.getBooking().getMaxVisitDuration();
+        if (Duration.between(visitRequest.getStartDateTime(), visitRequest.getEndDateTime())
+                .compareTo(maxVisitDuration) > 0) {
+            return "Visit must not be longer than " + maxVisitDuration.toMinutes() + " minutes";
+        }
+        return null;
+    }
+
+    private List<VisitBatchItemResponse> bookVisits(List<VisitRequest> visitRequests, Set<Long> doctorIds) {
+        Map<Long, Doctor> doctors = doctorRepository.findAllByIdForUpdate(doctorIds).stream()
+                .collect(toMap(Doctor::getId, identity()));
+        Set<Long> patientIds = visitRequests.stream()
+                .map(VisitRequest::getPatientId)
+                .collect(toSet());
+        Map<Long, Patient> patients = patientRepository.findAllById(patientIds).stream()
+                .collect(toMap(Patient::getId, identity()));
+        VisitBatchItemResponse[] responses = new VisitBatchItemResponse[visitRequests.size()];
+        List<PendingVisit> pendingVisits = new ArrayList<>();
+        for (int i = 0; i < visitRequests.size(); i++) {
+            VisitRequest visitRequest = visitRequests.get(i);
+            Doctor doctor = doctors.get(visitRequest.getDoctorId());
+            Patient patient = patients.get(visitRequest.getPatientId());
+            String durationError = findDurationError(visitRequest);
+            if (durationError != null) {
+                responses[i] = new VisitBatchItemResponse(i, INVALID, durationError, null);
+            } else if (doctor == null) {
+                visitMetrics.recordError(ERROR_NOT_FOUND);
+                responses[i] = new VisitBatchItemResponse(i, NOT_FOUND, "Doctor not found", null);
+            } else if (patient == null) {
+                visitMetrics.recordError(ERROR_NOT_FOUND);
+                responses[i] = new VisitBatchItemResponse(i, NOT_FOUND, "Patient not found", null);
+            } else {
+                pendingVisits.add(new PendingVisit(i,
+                        assembleVisit(visitRequest, ZoneId.of(doctor.getTimeZone()), doctor, patient)));
+            }
+        }
+        Map<Long, DoctorSchedule> schedules = loadSchedules(pendingVisits);
+        List<Visit> visits = new ArrayList<>();
+        for (PendingVisit pendingVisit : pendingVisits) {
+            Visit visit = pendingVisit.visit();
+            DoctorSchedule schedule = schedules.computeIfAbsent(visit.getDoctor().getId(), id -> new DoctorSchedule());
+            if (schedule.overlaps(visit.getStartDateTime(), visit.getEndDateTime())) {
+                visitMetrics.recordError(ERROR_CONFLICT);
+                responses[pendingVisit.index()] = new VisitBatchItemResponse(pendingVisit.index(), CONFLICT,
+                        "Doctor is already booked for this time", null);
+            } else {
+                schedule.add(visit.getStartDateTime(), visit.getEndDateTime());
+                visits.add(visit);
+                responses[pendingVisit.index()] = new VisitBatchItemResponse(pendingVisit.index(), BOOKED, null,
+                        assembleVisitResponse(visit));
+            }
+        }
+        visitRepository.saveAll(visits);
+        visitEventRepository.saveAll(visits.stream()
+                .map(this::assembleVisitEvent)
+                .toList());
+        visits.stream()
+                .map(visit -> Map.entry(visit.getDoctor().getId(), visit.getPatient().getId()))
+                .distinct()
+                .forEach(pair -> doctorPatientCounter.registerVisit(pair.getKey(), pair.getValue()));
+        return List.of(responses);
+    }
+
+    private Map<Long, DoctorSchedule> loadSchedules(List<PendingVisit> pendingVisits) {
+        Map<Long, DoctorSchedule> schedules = new HashMap<>();
+        if (pendingVisits.isEmpty()) {
+            return schedules;
         }
+        Set<Long> doctorIds = pendingVisits.stream()
+                .map(pendingVisit -> pendingVisit.visit().getDoctor().getId())
+                .collect(toSet());
+        LocalDateTime startDateTime = pendingVisits.stream()
+                .map(pendingVisit -> pendingVisit.visit().getStartDateTime())
+                .min(naturalOrder())
+                .orElseThrow();
+        LocalDateTime endDateTime = pendingVisits.stream()
+                .map(pendingVisit -> pendingVisit.visit().getEndDateTime())
+                .max(naturalOrder())
+                .orElseThrow();
+        visitRepository.findIntervals(doctorIds,
+                startDateTime.minus(visitProperties.getBooking().getMaxVisitDuration()), startDateTime,
+                endDateTime).forEach(interval ->
+                schedules.computeIfAbsent(interval.doctorId(), id -> new DoctorSchedule())
+                        .add(interval.startDateTime(), interval.endDateTime()));
+        return schedules;
+    }
+
+    private Visit assembleVisit(VisitRequest visitRequest, ZoneId doctorZone, Doctor doctor, Patient patient) {
         Visit visit = new Visit();
-        visit.setStartDateTime(startLocalDateTimeDoctorZone);
-        visit.setEndDateTime(endLocalDateTimeDoctorZone);
+        visit.setStartDateTime(convertToDoctorZone(visitRequest.getStartDateTime(), doctorZone));
+        visit.setEndDateTime(convertToDoctorZone(visitRequest.getEndDateTime(), doctorZone));
         visit.setDoctor(doctor);
         visit.setPatient(patient);
-        visitRepository.save(visit);
-        return new VisitResponse(patient.getFirstName(), patient.getLastName(), doctor.getFirstName(),
-                doctor.getLastName(), startLocalDateTimeDoctorZone, endLocalDateTimeDoctorZone);
-    }
-
-    public Page<PatientResponse> getPatientsWithVisits(int page, int size, String search, List<Long> doctorIds) {
-        Pageable pageable = of(page, size);
-        Page<Patient> patients = getPatients(search, pageable);
-        Map<Long, Long> doctorIdsToPatientsCount = visitRepository.findAllDoctors().stream()
-                .collect(groupingBy(identity(), counting()));
-        List<PatientDto> patientDtos = patients.getContent().stream()
-                .map(patient -> assemblePatientDto(patient, doctorIds, doctorIdsToPatientsCount))
-                .filter(patientDto -> !patientDto.visits().isEmpty())
-                .toList();
-        return new PageImpl<>(List.of(new PatientResponse(patientDtos)), pageable, patients.getTotalElements());
+        return visit;
+    }
+
+    private VisitEvent assembleVisitEvent(Visit visit) {
+        VisitEvent event = new VisitEvent();
+        event.setEventType(VisitEventType.BOOKED);
+        event.setVisitId(visit.getId());
+        event.setDoctorId(visit.getDoctor().getId());
+        event.setPatientId(visit.getPatient().getId());
+        event.setStartDateTime(visit.getStartDateTime());
+        event.setEndDateTime(visit.getEndDateTime());
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+
+    private VisitResponse assembleVisitResponse(Visit visit) {
+        return new VisitResponse(visit.getPatient().getFirstName(), visit.getPatient().getLastName(),
+                visit.getDoctor().getFirstName(), visit.getDoctor().getLastName(), visit.getStartDateTime(),
+                visit.getEndDateTime());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<PatientResponse> getPatientsWithVisits(int page, int size, String search, PatientMatch match,
+                                                       List<Long> doctorIds) {
+        return getPatientListing(page, size, search, match, doctorIds).page();
     }
 
-    private LocalDateTime convertToDoctorZone(String dateTime, ZoneId doctorZone) {
-        ZonedDateTime zonedDateTime = parse(dateTime, FORMATTER).toZonedDateTime();
-        ZonedDateTime dateTimeInDoctorZone = zonedDateTime.withZoneSameInstant(doctorZone);
-        return dateTimeInDoctorZone.toLocalDateTime();
+    @Transactional(readOnly = true)
+    public PatientListing getPatientListing(int page, int size, String search, PatientMatch match,
+                                            List<Long> doctorIds) {
+        if (page < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        validatePageSize(size);
+        return visitMetrics.time(GET_PATIENTS, () -> {
+            Pageable pageable = of(page, size);
+            Timer.Sample patientQuery = visitMetrics.startPhase();
+            Page<Long> patientIds = getPatientIds(search, match, pageable);
+            visitMetrics.stopPhase(patientQuery, GET_PATIENTS, PHASE_PATIENT_QUERY);
+            List<VisitRow> visitRows = fetchVisitRows(patientIds.getContent(), doctorIds);
+            List<PatientDto> patientDtos = assemblePatientDtos(patientIds.getContent(), visitRows);
+            return new PatientListing(new PageImpl<>(List.of(new PatientResponse(patientDtos)), pageable,
+                    patientIds.getTotalElements()), patientIds.getContent(), getDoctorIds(visitRows));
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public PatientCursorResponse getPatientsWithVisits(String cursor, int size, String search, PatientMatch match,
+                                                       List<Long> doctorIds) {
+        validatePageSize(size);
+        long afterId = PatientCursor.decode(cursor);
+        return visitMetrics.time(GET_PATIENTS, () -> {
+            Timer.Sample patientQuery = visitMetrics.startPhase();
+            List<Long> patientIds = getPatientIdsAfter(search, match, afterId, size + 1);
+            visitMetrics.stopPhase(patientQuery, GET_PATIENTS, PHASE_PATIENT_QUERY);
+            boolean hasNext = patientIds.size() > size;
+            List<Long> pagePatientIds = hasNext ? patientIds.subList(0, size) : patientIds;
+            List<PatientDto> patientDtos = assemblePatientDtos(pagePatientIds,
+                    fetchVisitRows(pagePatientIds, doctorIds));
+            String nextCursor = hasNext ? PatientCursor.encode(pagePatientIds.getLast()) : null;
+            return new PatientCursorResponse(patientDtos, patientDtos.size(), nextCursor);
+        });
+    }
+
+    private void validatePageSize(int size) {
+        int maxPageSize = visitProperties.getListing().getMaxPageSize();
+        if (size < 1 || size > maxPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+    }
+
+    private boolean isBooked(Long doctorId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (doctorScheduleIndex.isReady()) {
+            if (doctorScheduleIndex.overlaps(doctorId, startDateTime, endDateTime)) {
+                return true;
+            }
+            if (doctorScheduleIndex.isAuthoritative(startDateTime)) {
+                return false;
+            }
+        }
+        return visitRepository.existsBookedVisit(startDateTime, endDateTime,
+                visitProperties.getBooking().getMaxVisitDuration(), doctorId);
+    }
+
+    private LocalDateTime convertToDoctorZone(Instant dateTime, ZoneId doctorZone) {
+        return LocalDateTime.ofInstant(dateTime, doctorZone);
+    }
+
+    private Page<Long> getPatientIds(String search, PatientMatch match, Pageable pageable) {
+        if (search.isEmpty()) {
+            return patientRepository.findAllIds(pageable);
+        }
+        if (match == PatientMatch.EXACT) {
+            return patientRepository.findIdsByLastNameIgnoreCase(search, pageable);
+        }
+        if (!patientNameIndex.isReady()) {
+            return patientSearchRepository.findIdsByNamePrefixes(search, pageable);
+        }
+        List<Long> patientIds = patientNameIndex.find(search, match, 0L,
+                visitProperties.getPatientSearch().getMaxResults());
+        int from = (int) Math.min(pageable.getOffset(), patientIds.size());
+        int to = Math.min(from + pageable.getPageSize(), patientIds.size());
+        return new PageImpl<>(patientIds.subList(from, to), pageable, patientIds.size());
+    }
+
+    private List<Long> getPatientIdsAfter(String search, PatientMatch match, long afterId, int limit) {
+        if (search.isEmpty()) {
+            return patientRepository.findIdsAfter(afterId, of(0, limit));
+        }
+        if (match == PatientMatch.EXACT) {
+            return patientRepository.findIdsByLastNameIgnoreCaseAfter(search, afterId, of(0, limit));
+        }
+        if (!patientNameIndex.isReady()) {
+            return patientSearchRepository.findIdsByNamePrefixesAfter(search, afterId, limit);
+        }
+        return patientNameIndex.find(search, match, afterId, limit);
     }
 
-    private Page<Patient> getPatients(String search, Pageable pageable) {
-        return !search.isEmpty()
-                ? patientRepository.findByFirstNameIgnoreCase(search, pageable)
-                : patientRepository.findAllPatients(pageable);
+    private List<VisitRow> fetchVisitRows(List<Long> patientIds, List<Long> doctorIds) {
+        Timer.Sample visitQuery = visitMetrics.startPhase();
+        List<VisitRow> visitRows = getVisitRows(patientIds, doctorIds);
+        visitMetrics.stopPhase(visitQuery, GET_PATIENTS, PHASE_VISIT_QUERY);
+        visitMetrics.recordFetchedRows(visitRows.size());
+        return visitRows;
     }
 
-    private PatientDto assemblePatientDto(Patient patient, List<Long> doctorIds, Map<Long, Long> doctorIdsToPatientsCount) {
-        List<Visit> visits = patient.getVisits().stream()
-                .filter(visit -> doctorIds.isEmpty() || doctorIds.contains(visit.getDoctor().getId()))
+    private List<PatientDto> assemblePatientDtos(List<Long> patientIds, List<VisitRow> visitRows) {
+        Map<Long, List<VisitRow>> patientIdsToVisitRows = visitRows.stream()
+                .collect(groupingBy(VisitRow::patientId));
+        Timer.Sample countAggregation = visitMetrics.startPhase();
+        Map<Long, Long> doctorIdsToPatientsCount = doctorPatientCounter.getTotalPatients(getDoctorIds(visitRows));
+        visitMetrics.stopPhase(countAggregation, GET_PATIENTS, PHASE_COUNT_AGGREGATION);
+        Timer.Sample dtoAssembly = visitMetrics.startPhase();
+        List<PatientDto> patientDtos = patientIds.stream()
+                .filter(patientIdsToVisitRows::containsKey)
+                .map(patientId -> assemblePatientDto(patientIdsToVisitRows.get(patientId), doctorIdsToPatientsCount))
                 .toList();
-        List<VisitDto> visitDtos = visits.stream()
-                .map(visit -> assembleVisitDto(visit, doctorIdsToPatientsCount.get(visit.getDoctor().getId())))
+        visitMetrics.stopPhase(dtoAssembly, GET_PATIENTS, PHASE_DTO_ASSEMBLY);
+        return patientDtos;
+    }
+
+    private static Set<Long> getDoctorIds(List<VisitRow> visitRows) {
+        return visitRows.stream()
+                .map(VisitRow::doctorId)
+                .collect(toSet());
+    }
+
+    private List<VisitRow> getVisitRows(List<Long> patientIds, List<Long> doctorIds) {
+        if (patientIds.isEmpty()) {
+            return List.of();
+        }
+        return doctorIds.isEmpty()
+                ? visitRepository.findRowsByPatientIds(patientIds)
+                : visitRepository.findRowsByPatientIdsAndDoctorIds(patientIds, doctorIds);
+    }
+
+    private PatientDto assemblePatientDto(List<VisitRow> visitRows, Map<Long, Long> doctorIdsToPatientsCount) {
+        VisitRow patientRow = visitRows.getFirst();
+        List<VisitDto> visitDtos = visitRows.stream()
+                .map(visitRow -> assembleVisitDto(visitRow,
+                        doctorIdsToPatientsCount.getOrDefault(visitRow.doctorId(), 0L)))
                 .toList();
-        return new PatientDto(patient.getFirstName(), patient.getLastName(), visitDtos);
+        return new PatientDto(patientRow.patientFirstName(), patientRow.patientLastName(), visitDtos);
+    }
+
+    private VisitDto assembleVisitDto(VisitRow visitRow, Long visitCount) {
+        return new VisitDto(visitRow.startDateTime().toString(), visitRow.endDateTime().toString(),
+                new DoctorDto(visitRow.doctorFirstName(), visitRow.doctorLastName(), visitCount));
     }
 
-    private VisitDto assembleVisitDto(Visit visit, Long visitCount) {
-        return new VisitDto(visit.getStartDateTime().toString(), visit.getEndDateTime().toString(),
-                new DoctorDto(visit.getDoctor().getFirstName(), visit.getDoctor().getLastName(), visitCount));
+    private record PendingVisit(int index, Visit visit) {
     }
 
 }
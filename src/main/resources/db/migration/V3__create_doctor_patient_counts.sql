@@ -0,0 +1,17 @@
+CREATE TABLE IF NOT EXISTS doctor_patients (
+                                               doctor_id INT NOT NULL,
+                                               patient_id INT NOT NULL,
+                                               PRIMARY KEY (doctor_id, patient_id),
+                                               FOREIGN KEY (doctor_id) REFERENCES doctors(id),
+                                               FOREIGN KEY (patient_id) REFERENCES patients(id));
+
+CREATE TABLE IF NOT EXISTS doctor_patient_counts (
+                                                     doctor_id INT PRIMARY KEY,
+                                                     total_patients BIGINT NOT NULL DEFAULT 0,
+                                                     FOREIGN KEY (doctor_id) REFERENCES doctors(id));
+
+INSERT IGNORE INTO doctor_patients (doctor_id, patient_id)
+SELECT DISTINCT doctor_id, patient_id FROM visits;
+
+INSERT INTO doctor_patient_counts (doctor_id, total_patients)
+SELECT doctor_id, COUNT(*) FROM doctor_patients GROUP BY doctor_id;
@@ -0,0 +1,7 @@
+CREATE INDEX idx_visits_doctor_start_end ON visits (doctor_id, start_date_time, end_date_time);
+CREATE INDEX idx_visits_doctor_patient ON visits (doctor_id, patient_id);
+CREATE INDEX idx_visits_patient_doctor ON visits (patient_id, doctor_id);
+
+ALTER TABLE patients
+    ADD COLUMN last_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(last_name)) STORED;
+CREATE INDEX idx_patients_last_name_lower ON patients (last_name_lower, id);
@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS visits_seq (
+                                          next_val BIGINT NOT NULL);
+
+INSERT INTO visits_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 100 FROM visits;
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS visit_events (
+                                            id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                                            event_type VARCHAR(32) NOT NULL,
+                                            visit_id INT NOT NULL,
+                                            doctor_id INT NOT NULL,
+                                            patient_id INT NOT NULL,
+                                            start_date_time DATETIME NOT NULL,
+                                            end_date_time DATETIME NOT NULL,
+                                            created_at DATETIME NOT NULL,
+                                            published_at DATETIME NULL);
+
+CREATE INDEX idx_visit_events_published_id ON visit_events (published_at, id);
@@ -0,0 +1,3 @@
+ALTER TABLE visits
+    ADD CONSTRAINT chk_visits_duration
+        CHECK (end_date_time > start_date_time AND end_date_time <= start_date_time + INTERVAL 24 HOUR);
@@ -0,0 +1,3 @@
+ALTER TABLE patients
+    ADD COLUMN first_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(first_name)) STORED;
+CREATE INDEX idx_patients_first_name_lower ON patients (first_name_lower, id);
@@ -0,0 +1,67 @@
+package com.testtask.doctorvisittracking.config;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DatabaseConcurrencyFilterTest {
+
+    @Test
+    void rejectsWhenPermitsAreExhaustedTest() throws ServletException, IOException {
+        DatabaseConcurrencyFilter filter = new DatabaseConcurrencyFilter(1, Duration.ofMillis(10), Map.of());
+        MockHttpServletResponse rejectedResponse = new MockHttpServletResponse();
+        filter.doFilter(createRequest(), new MockHttpServletResponse(), (request, response) ->
+                filter.doFilter(createRequest(), rejectedResponse, new MockFilterChain()));
+        assertEquals(429, rejectedResponse.getStatus());
+        assertEquals("1", rejectedResponse.getHeader("Retry-After"));
+        assertEquals("Too many concurrent requests, please retry", rejectedResponse.getContentAsString());
+    }
+
+    @Test
+    void releasesPermitAfterRequestTest() throws ServletException, IOException {
+        DatabaseConcurrencyFilter filter = new DatabaseConcurrencyFilter(1, Duration.ofMillis(10), Map.of());
+        filter.doFilter(createRequest(), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(createRequest(), response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void holdsPermitUntilAsyncRequestCompletesTest() throws ServletException, IOException {
+        DatabaseConcurrencyFilter filter = new DatabaseConcurrencyFilter(1, Duration.ofMillis(10), Map.of());
+        MockHttpServletRequest asyncRequest = createRequest();
+        asyncRequest.setAsyncSupported(true);
+        filter.doFilter(asyncRequest, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        MockHttpServletResponse rejectedResponse = new MockHttpServletResponse();
+        filter.doFilter(createRequest(), rejectedResponse, new MockFilterChain());
+        assertEquals(429, rejectedResponse.getStatus());
+        ((MockAsyncContext) asyncRequest.getAsyncContext()).complete();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(createRequest(), response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void acquiresConfiguredPermitsForPathTest() throws ServletException, IOException {
+        DatabaseConcurrencyFilter filter = new DatabaseConcurrencyFilter(4, Duration.ofMillis(10),
+                Map.of("/doctors/utilization", 4));
+        MockHttpServletResponse rejectedResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/doctors/utilization"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(createRequest(), rejectedResponse, new MockFilterChain()));
+        assertEquals(429, rejectedResponse.getStatus());
+    }
+
+    private static MockHttpServletRequest createRequest() {
+        return new MockHttpServletRequest("GET", "/visits/patients");
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.testtask.doctorvisittracking.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaLagMonitorTest {
+
+    private final DataSource replica = mock(DataSource.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+    private final VisitProperties.Replica replicaProperties = new VisitProperties.Replica();
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(resultSet);
+        when(resultSet.getLong("Seconds_Behind_Source")).thenReturn(1L);
+        replicaLagMonitor = new ReplicaLagMonitor(replica, replicaProperties);
+    }
+
+    @Test
+    void replicaUsableWhenLagIsWithinMaxLagTest() throws SQLException {
+        when(resultSet.next()).thenReturn(true);
+        replicaLagMonitor.checkLag();
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void replicaUnusableWhenLagQueryReturnsNoRowsTest() throws SQLException {
+        when(resultSet.next()).thenReturn(true, false);
+        replicaLagMonitor.checkLag();
+        replicaLagMonitor.checkLag();
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void replicaUnusableWhenLagIsNullTest() throws SQLException {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.wasNull()).thenReturn(false, true);
+        replicaLagMonitor.checkLag();
+        replicaLagMonitor.checkLag();
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+    }
+
+}
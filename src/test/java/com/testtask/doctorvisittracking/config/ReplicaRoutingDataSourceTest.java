@@ -0,0 +1,90 @@
+package com.testtask.doctorvisittracking.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final VisitProperties.Replica replicaProperties = new VisitProperties.Replica();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        replicaProperties.setLagQuery("");
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplicaTest() throws SQLException {
+        DataSource dataSource = createDataSource(new ReplicaLagMonitor(replica, replicaProperties));
+        TransactionTemplate readOnly = createTransactionTemplate(dataSource, true);
+        readOnly.executeWithoutResult(status -> createStatement(dataSource));
+        verify(replicaConnection).createStatement();
+        verify(primaryConnection, never()).createStatement();
+    }
+
+    @Test
+    void routesWritingTransactionsToPrimaryTest() throws SQLException {
+        DataSource dataSource = createDataSource(new ReplicaLagMonitor(replica, replicaProperties));
+        createTransactionTemplate(dataSource, false).executeWithoutResult(status -> createStatement(dataSource));
+        verify(primaryConnection).createStatement();
+        verify(replicaConnection, never()).createStatement();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToPrimaryWhenReplicaLagsTest() throws SQLException {
+        replicaProperties.setLagQuery("SHOW REPLICA STATUS");
+        DataSource dataSource = createDataSource(new ReplicaLagMonitor(replica, replicaProperties));
+        createTransactionTemplate(dataSource, true).executeWithoutResult(status -> createStatement(dataSource));
+        verify(primaryConnection).createStatement();
+        verify(replicaConnection, never()).createStatement();
+    }
+
+    @Test
+    void routesOutsideTransactionsToPrimaryTest() throws SQLException {
+        DataSource dataSource = createDataSource(new ReplicaLagMonitor(replica, replicaProperties));
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+        verify(primaryConnection).createStatement();
+        assertSame(primaryConnection, new ReplicaRoutingDataSource(primary, replica,
+                new ReplicaLagMonitor(replica, replicaProperties)).getConnection());
+    }
+
+    private DataSource createDataSource(ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor));
+    }
+
+    private static TransactionTemplate createTransactionTemplate(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate;
+    }
+
+    private static void createStatement(DataSource dataSource) {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+}
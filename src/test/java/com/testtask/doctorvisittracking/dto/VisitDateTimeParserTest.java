@@ -0,0 +1,35 @@
+package com.testtask.doctorvisittracking.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VisitDateTimeParserTest {
+
+    private static final DateTimeFormatter FORMATTER = ofPattern(VisitDateTimeParser.PATTERN);
+
+    @Test
+    void parseMatchesDateTimeFormatterTest() {
+        for (String text : List.of("2025-02-20 10:00:00+02:00", "2025-02-20 10:00:00Z", "1999-12-31 23:59:59-05:30",
+                "2024-02-29 00:00:00+14:00", "1970-01-01 00:00:00-18:00")) {
+            assertEquals(OffsetDateTime.parse(text, FORMATTER).toInstant(), VisitDateTimeParser.parse(text));
+        }
+    }
+
+    @Test
+    void parseRejectsMalformedTextTest() {
+        for (String text : List.of("", "2025-02-20T10:00:00+02:00", "2025-02-20 10:00:00", "2025-02-20 10:00:00+0200",
+                "2025-13-20 10:00:00Z", "2025-02-30 10:00:00Z", "2025-02-20 24:00:00Z", "2025-02-20 10:00:00+19:00",
+                "2025-02-2a 10:00:00Z", "2025-02-20 10:00:00z")) {
+            assertThrows(DateTimeParseException.class, () -> VisitDateTimeParser.parse(text), text);
+        }
+    }
+
+}
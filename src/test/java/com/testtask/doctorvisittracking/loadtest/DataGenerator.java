@@ -0,0 +1,235 @@
+package com.testtask.doctorvisittracking.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class DataGenerator {
+
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+            "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark",
+            "Ramirez", "Lewis", "Robinson", "Kovalenko", "Shevchenko", "Bondarenko", "Tkachenko", "Kravchenko"};
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+            "Linda", "William", "Elizabeth", "David", "Barbara", "Olena", "Andrii", "Iryna", "Taras", "Sofia", "Yurii"};
+    private static final String[] TIME_ZONES = {"Europe/Kyiv", "Europe/Kyiv", "Europe/Kyiv", "Europe/Warsaw",
+            "Europe/London", "Europe/Berlin", "America/New_York", "America/New_York", "America/Chicago",
+            "America/Los_Angeles", "Asia/Tokyo", "Australia/Sydney", "UTC"};
+    private static final int[] VISIT_MINUTES = {15, 15, 20, 20, 20, 25, 25};
+    private static final LocalTime WORKDAY_START = LocalTime.of(9, 0);
+    private static final int SLOTS_PER_DAY = 16;
+    private static final int SLOT_MINUTES = 30;
+
+    private final String url = System.getProperty("datagen.url",
+            "jdbc:mysql://localhost:3306/doctor_visit_tracking?rewriteBatchedStatements=true");
+    private final String username = System.getProperty("datagen.username", "root");
+    private final String password = System.getProperty("datagen.password", "");
+    private final long patients = Long.getLong("datagen.patients", 1_000_000);
+    private final long doctors = Long.getLong("datagen.doctors", 10_000);
+    private final long visits = Long.getLong("datagen.visits", 5_000_000);
+    private final double occupancy = Double.parseDouble(System.getProperty("datagen.occupancy", "0.6"));
+    private final double patientSkew = Double.parseDouble(System.getProperty("datagen.patientSkew", "2.0"));
+    private final LocalDate startDate = LocalDate.parse(System.getProperty("datagen.startDate",
+            LocalDate.now().toString()));
+    private final int batchSize = Integer.getInteger("datagen.batchSize", 10_000);
+    private final Random random = new Random(Long.getLong("datagen.seed", 42));
+
+    public static void main(String[] args) throws SQLException {
+        DataGenerator generator = new DataGenerator();
+        GeneratedData data = generator.generate();
+        System.out.printf("patients=%d doctors=%d visits=%d window=%s..%s%n", data.patients(), data.doctors(),
+                data.visits(), data.firstDay(), data.lastDay());
+    }
+
+    GeneratedData generate(long patients, long doctors, long visits) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION unique_checks = 0");
+            }
+            long start = System.nanoTime();
+            insertPatients(connection, patients - count(connection, "SELECT COUNT(*) FROM patients"));
+            insertDoctors(connection, doctors - count(connection, "SELECT COUNT(*) FROM doctors"));
+            long[] patientIds = loadIds(connection, "SELECT id FROM patients ORDER BY id");
+            long[] doctorIds = loadIds(connection, "SELECT id FROM doctors ORDER BY id");
+            LocalDate firstDay = insertVisits(connection, patientIds, doctorIds,
+                    visits - count(connection, "SELECT COUNT(*) FROM visits"));
+            rebuildDerivedData(connection);
+            System.out.printf("generated in %.1fs%n", (System.nanoTime() - start) / 1e9);
+            return new GeneratedData(patientIds.length, doctorIds.length,
+                    count(connection, "SELECT COUNT(*) FROM visits"), firstDay,
+                    lastDay(connection), loadTimeZones(connection));
+        }
+    }
+
+    GeneratedData generate() throws SQLException {
+        return generate(patients, doctors, visits);
+    }
+
+    private void insertPatients(Connection connection, long count) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO patients (first_name, last_name) VALUES (?, ?)")) {
+            for (long i = 0; i < count; i++) {
+                statement.setString(1, pick(FIRST_NAMES));
+                statement.setString(2, pick(LAST_NAMES) + (random.nextInt(4) == 0 ? "" : "-" + random.nextInt(1000)));
+                addBatch(connection, statement, i);
+            }
+            flush(connection, statement);
+        }
+    }
+
+    private void insertDoctors(Connection connection, long count) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO doctors (first_name, last_name, time_zone) VALUES (?, ?, ?)")) {
+            for (long i = 0; i < count; i++) {
+                statement.setString(1, pick(FIRST_NAMES));
+                statement.setString(2, pick(LAST_NAMES));
+                statement.setString(3, pick(TIME_ZONES));
+                addBatch(connection, statement, i);
+            }
+            flush(connection, statement);
+        }
+    }
+
+    private LocalDate insertVisits(Connection connection, long[] patientIds, long[] doctorIds, long count)
+            throws SQLException {
+        LocalDate lastDay = lastDay(connection);
+        LocalDate day = lastDay == null || lastDay.isBefore(startDate) ? startDate : lastDay.plusDays(1);
+        LocalDate firstDay = lastDay == null ? day : firstDay(connection);
+        long nextId = Math.max(count(connection, "SELECT COALESCE(MAX(id), 0) FROM visits"),
+                count(connection, "SELECT COALESCE(MAX(id), 0) FROM visits_archive"));
+        nextId = Math.max(nextId, count(connection, "SELECT COALESCE(MAX(next_val), 0) FROM visits_seq")) + 1;
+        try (PreparedStatement statement = connection.prepareStatement("""
+                INSERT INTO visits (id, start_date_time, end_date_time, patient_id, doctor_id)
+                VALUES (?, ?, ?, ?, ?)""")) {
+            long inserted = 0;
+            while (inserted < count) {
+                for (int doctor = 0; doctor < doctorIds.length && inserted < count; doctor++) {
+                    for (int slot = 0; slot < SLOTS_PER_DAY && inserted < count; slot++) {
+                        if (random.nextDouble() >= occupancy) {
+                            continue;
+                        }
+                        LocalDateTime start = day.atTime(WORKDAY_START).plusMinutes((long) slot * SLOT_MINUTES);
+                        statement.setLong(1, nextId++);
+                        statement.setTimestamp(2, Timestamp.valueOf(start));
+                        statement.setTimestamp(3, Timestamp.valueOf(start.plusMinutes(pick(VISIT_MINUTES))));
+                        statement.setLong(4, patientIds[skewedIndex(patientIds.length)]);
+                        statement.setLong(5, doctorIds[doctor]);
+                        addBatch(connection, statement, inserted++);
+                    }
+                }
+                day = day.plusDays(1);
+            }
+            flush(connection, statement);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE visits_seq SET next_val = GREATEST(next_val, ?)")) {
+            statement.setLong(1, nextId + 100);
+            statement.executeUpdate();
+        }
+        connection.commit();
+        return firstDay;
+    }
+
+    private void rebuildDerivedData(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT IGNORE INTO doctor_patients (doctor_id, patient_id)
+                    SELECT doctor_id, patient_id FROM visits
+                    UNION SELECT doctor_id, patient_id FROM visits_archive""");
+            statement.execute("""
+                    INSERT INTO doctor_patient_counts (doctor_id, total_patients)
+                    SELECT * FROM (SELECT doctor_id, COUNT(*) AS patients FROM doctor_patients GROUP BY doctor_id) AS src
+                    ON DUPLICATE KEY UPDATE total_patients = src.patients""");
+        }
+        connection.commit();
+    }
+
+    private void addBatch(Connection connection, PreparedStatement statement, long index) throws SQLException {
+        statement.addBatch();
+        if ((index + 1) % batchSize == 0) {
+            flush(connection, statement);
+        }
+    }
+
+    private void flush(Connection connection, PreparedStatement statement) throws SQLException {
+        statement.executeBatch();
+        connection.commit();
+    }
+
+    private int skewedIndex(int size) {
+        return (int) Math.min(size - 1, size * Math.pow(random.nextDouble(), patientSkew));
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private int pick(int[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static long count(Connection connection, String query) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static long[] loadIds(Connection connection, String query) throws SQLException {
+        long[] ids = new long[1024];
+        int size = 0;
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = resultSet.getLong(1);
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+    private static Map<Long, ZoneId> loadTimeZones(Connection connection) throws SQLException {
+        Map<Long, ZoneId> doctorIdsToZones = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id, time_zone FROM doctors ORDER BY id")) {
+            while (resultSet.next()) {
+                doctorIdsToZones.put(resultSet.getLong(1), ZoneId.of(resultSet.getString(2)));
+            }
+        }
+        return doctorIdsToZones;
+    }
+
+    private static LocalDate firstDay(Connection connection) throws SQLException {
+        return day(connection, "SELECT DATE(MIN(start_date_time)) FROM visits");
+    }
+
+    private static LocalDate lastDay(Connection connection) throws SQLException {
+        return day(connection, "SELECT DATE(MAX(start_date_time)) FROM visits");
+    }
+
+    private static LocalDate day(Connection connection, String query) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return resultSet.getObject(1, LocalDate.class);
+        }
+    }
+
+    record GeneratedData(long patients, long doctors, long visits, LocalDate firstDay, LocalDate lastDay,
+                         Map<Long, ZoneId> doctorTimeZones) {
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.testtask.doctorvisittracking.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private final Map<Integer, Long> statusCounts = new TreeMap<>();
+
+    void record(int status, long latencyNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        statusCounts.merge(status, 1L, Long::sum);
+    }
+
+    void addAll(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = other.latencies[i];
+        }
+        other.statusCounts.forEach((status, statusCount) -> statusCounts.merge(status, statusCount, Long::sum));
+    }
+
+    int count() {
+        return count;
+    }
+
+    long countOf(int status) {
+        return statusCounts.getOrDefault(status, 0L);
+    }
+
+    Map<Integer, Long> statusCounts() {
+        return statusCounts;
+    }
+
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(count - 1, Math.ceil(percentile / 100 * count) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+}
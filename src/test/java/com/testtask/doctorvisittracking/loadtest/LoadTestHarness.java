@@ -0,0 +1,179 @@
+package com.testtask.doctorvisittracking.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+public class LoadTestHarness {
+
+    private static final DateTimeFormatter FORMATTER = ofPattern("yyyy-MM-dd HH:mm:ssXXX");
+    private static final OffsetDateTime FIRST_SLOT = OffsetDateTime.of(2045, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final String CONFLICT_MESSAGE = "Doctor is already booked for this time";
+
+    private final String baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:8080");
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+    private final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+    private final double writeRatio = Double.parseDouble(System.getProperty("loadtest.writeRatio", "0.2"));
+    private final long[] doctorIds;
+    private final ZoneId[] doctorZones;
+    private final int patients;
+    private final LocalDate bookingFrom;
+    private final int bookingDays;
+    private final AtomicLong slots = new AtomicLong();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    public LoadTestHarness() {
+        this(LongStream.rangeClosed(1, Integer.getInteger("loadtest.doctors", 10_000))
+                        .boxed()
+                        .collect(toMap(identity(), id -> ZoneOffset.UTC)),
+                Integer.getInteger("loadtest.patients", 10_000), null, 0);
+    }
+
+    LoadTestHarness(Map<Long, ? extends ZoneId> doctorTimeZones, int patients, LocalDate bookingFrom,
+                    int bookingDays) {
+        doctorIds = new long[doctorTimeZones.size()];
+        doctorZones = new ZoneId[doctorTimeZones.size()];
+        int index = 0;
+        for (Map.Entry<Long, ? extends ZoneId> doctor : doctorTimeZones.entrySet()) {
+            doctorIds[index] = doctor.getKey();
+            doctorZones[index++] = doctor.getValue();
+        }
+        this.patients = patients;
+        this.bookingFrom = bookingFrom;
+        this.bookingDays = bookingDays;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestHarness harness = new LoadTestHarness();
+        harness.report(harness.run());
+    }
+
+    LoadTestResult run() throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<LoadTestResult>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> runWorker(deadline)));
+            }
+        }
+        LoadTestResult total = new LoadTestResult(new LatencyRecorder(), new LatencyRecorder(), new AtomicLong());
+        for (Future<LoadTestResult> worker : workers) {
+            LoadTestResult result = worker.get();
+            total.writes().addAll(result.writes());
+            total.reads().addAll(result.reads());
+            total.conflicts().addAndGet(result.conflicts().get());
+        }
+        return total;
+    }
+
+    long durationMillis() {
+        return duration.toMillis();
+    }
+
+    void report(LoadTestResult result) {
+        double seconds = duration.toMillis() / 1000.0;
+        LatencyRecorder recorder = result.total();
+        System.out.printf("baseUrl=%s concurrency=%d duration=%s writeRatio=%.2f%n", baseUrl, concurrency, duration,
+                writeRatio);
+        System.out.printf("requests=%d throughput=%.1f req/s%n", recorder.count(), recorder.count() / seconds);
+        report("all", recorder);
+        report("POST /visits", result.writes());
+        report("GET /visits/patients", result.reads());
+        System.out.printf("conflict rate=%.2f%%%n", result.conflictRate() * 100);
+    }
+
+    private void report(String operation, LatencyRecorder recorder) {
+        System.out.printf("%s latency ms p50=%.2f p90=%.2f p99=%.2f max=%.2f statuses=%s%n", operation,
+                recorder.percentileMillis(50), recorder.percentileMillis(90), recorder.percentileMillis(99),
+                recorder.percentileMillis(100), recorder.statusCounts());
+    }
+
+    private LoadTestResult runWorker(long deadline) {
+        LoadTestResult result = new LoadTestResult(new LatencyRecorder(), new LatencyRecorder(), new AtomicLong());
+        while (System.nanoTime() < deadline) {
+            boolean write = ThreadLocalRandom.current().nextDouble() < writeRatio;
+            HttpRequest request = write ? createVisitRequest() : getPatientsRequest();
+            long start = System.nanoTime();
+            int status;
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                if (write && status == 400 && CONFLICT_MESSAGE.equals(response.body())) {
+                    result.conflicts().incrementAndGet();
+                }
+            } catch (Exception exception) {
+                status = -1;
+            }
+            (write ? result.writes() : result.reads()).record(status, System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    private HttpRequest createVisitRequest() {
+        int doctor = ThreadLocalRandom.current().nextInt(doctorIds.length);
+        OffsetDateTime start = bookingFrom == null
+                ? FIRST_SLOT.plusMinutes(slots.getAndIncrement() * 30)
+                : bookingFrom.plusDays(ThreadLocalRandom.current().nextInt(bookingDays))
+                .atTime(9, 0)
+                .plusMinutes(ThreadLocalRandom.current().nextInt(16) * 30L)
+                .atZone(doctorZones[doctor])
+                .toOffsetDateTime();
+        String body = """
+                {"startDateTime":"%s","endDateTime":"%s","patientId":%d,"doctorId":%d}"""
+                .formatted(start.format(FORMATTER), start.plusMinutes(30).format(FORMATTER),
+                        ThreadLocalRandom.current().nextInt(patients) + 1, doctorIds[doctor]);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/visits"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest getPatientsRequest() {
+        int page = ThreadLocalRandom.current().nextInt(100);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/visits/patients?page=" + page
+                        + "&size=10&search=&doctorIds="))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    record LoadTestResult(LatencyRecorder writes, LatencyRecorder reads, AtomicLong conflicts) {
+
+        LatencyRecorder total() {
+            LatencyRecorder total = new LatencyRecorder();
+            total.addAll(writes);
+            total.addAll(reads);
+            return total;
+        }
+
+        double conflictRate() {
+            return writes.count() == 0 ? 0 : (double) conflicts.get() / writes.count();
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.testtask.doctorvisittracking.loadtest;
+
+import com.testtask.doctorvisittracking.loadtest.DataGenerator.GeneratedData;
+import com.testtask.doctorvisittracking.loadtest.LoadTestHarness.LoadTestResult;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class ScalingScenarioRunner {
+
+    private final List<Long> steps = Arrays.stream(System.getProperty("scenario.steps", "100000,1000000,5000000")
+                    .split(","))
+            .map(String::trim)
+            .map(Long::valueOf)
+            .toList();
+    private final long visitsPerPatient = Long.getLong("scenario.visitsPerPatient", 5);
+    private final long visitsPerDoctor = Long.getLong("scenario.visitsPerDoctor", 500);
+    private final Duration warmUp = Duration.parse(System.getProperty("scenario.warmUp", "PT10S"));
+
+    public static void main(String[] args) throws Exception {
+        new ScalingScenarioRunner().run();
+    }
+
+    void run() throws Exception {
+        DataGenerator generator = new DataGenerator();
+        List<String> rows = new ArrayList<>();
+        rows.add("%12s %10s %8s %10s %9s %9s %9s %9s %9s %9s".formatted("visits", "patients", "doctors", "req/s",
+                "post p50", "post p99", "get p50", "get p99", "conflicts", "errors"));
+        for (long visits : steps) {
+            GeneratedData data = generator.generate(Math.max(1, visits / visitsPerPatient),
+                    Math.max(1, visits / visitsPerDoctor), visits);
+            LoadTestHarness harness = new LoadTestHarness(data.doctorTimeZones(), (int) data.patients(),
+                    data.firstDay(), (int) ChronoUnit.DAYS.between(data.firstDay(), data.lastDay()) + 1);
+            Thread.sleep(warmUp.toMillis());
+            LoadTestResult result = harness.run();
+            harness.report(result);
+            LatencyRecorder total = result.total();
+            rows.add("%12d %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %8.2f%% %9d".formatted(data.visits(),
+                    data.patients(), data.doctors(), total.count() / (harness.durationMillis() / 1000.0),
+                    result.writes().percentileMillis(50), result.writes().percentileMillis(99),
+                    result.reads().percentileMillis(50), result.reads().percentileMillis(99),
+                    result.conflictRate() * 100, total.countOf(-1) + countServerErrors(total)));
+        }
+        rows.forEach(System.out::println);
+    }
+
+    private static long countServerErrors(LatencyRecorder recorder) {
+        return recorder.statusCounts().entrySet().stream()
+                .filter(entry -> entry.getKey() >= 500)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.testtask.doctorvisittracking.repository;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.service.PatientNameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static com.testtask.doctorvisittracking.dto.PatientMatch.PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class PatientSearchRepositoryTest {
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:patient_search;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    private final PatientSearchRepository patientSearchRepository = new PatientSearchRepository(
+            new NamedParameterJdbcTemplate(dataSource));
+    private final PatientNameIndex patientNameIndex = new PatientNameIndex(mock(PatientRepository.class),
+            new VisitProperties());
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS patients");
+        jdbcTemplate.execute("""
+                CREATE TABLE patients (
+                                          id INT PRIMARY KEY AUTO_INCREMENT,
+                                          first_name VARCHAR(50) NOT NULL,
+                                          last_name VARCHAR(50) NOT NULL,
+                                          first_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(first_name)),
+                                          last_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(last_name)))""");
+        jdbcTemplate.batchUpdate("INSERT INTO patients (id, first_name, last_name) VALUES (?, ?, ?)", List.of(
+                new Object[]{1L, "Jane", "Marry"},
+                new Object[]{2L, "Sam", "Elliot"},
+                new Object[]{3L, "Mark", "Johnson"},
+                new Object[]{4L, "Maria", "Jonson"},
+                new Object[]{5L, "Jo_", "100%"}));
+        jdbcTemplate.query("SELECT id, first_name, last_name FROM patients", resultSet -> {
+            patientNameIndex.put(resultSet.getLong("id"), resultSet.getString("first_name"),
+                    resultSet.getString("last_name"));
+        });
+    }
+
+    @Test
+    void findIdsByNamePrefixesMatchesNameIndexTest() {
+        for (String search : List.of("ma", "MA", "jo", "jane", "marry", "mar jon", "jane m", "sam x", "jo_", "100%",
+                "j%", "x")) {
+            List<Long> indexed = patientNameIndex.find(search, PREFIX, 0L, 10);
+            assertEquals(indexed, patientSearchRepository.findIdsByNamePrefixesAfter(search, 0L, 10), search);
+            assertEquals(indexed, patientSearchRepository.findIdsByNamePrefixes(search, PageRequest.of(0, 10))
+                    .getContent(), search);
+        }
+    }
+
+    @Test
+    void findIdsByNamePrefixesPagesLikeNameIndexTest() {
+        assertEquals(patientNameIndex.find("ma", PREFIX, 1L, 2),
+                patientSearchRepository.findIdsByNamePrefixesAfter("ma", 1L, 2));
+        assertEquals(3, patientSearchRepository.findIdsByNamePrefixes("ma", PageRequest.of(1, 2)).getTotalElements());
+    }
+
+}
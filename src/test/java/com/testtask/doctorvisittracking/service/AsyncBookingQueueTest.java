@@ -0,0 +1,127 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.BatchItemStatus;
+import com.testtask.doctorvisittracking.dto.BookingStatusResponse;
+import com.testtask.doctorvisittracking.dto.VisitBatchItemResponse;
+import com.testtask.doctorvisittracking.dto.VisitDateTimeParser;
+import com.testtask.doctorvisittracking.dto.VisitRequest;
+import com.testtask.doctorvisittracking.dto.VisitResponse;
+import com.testtask.doctorvisittracking.exception.ResourceNotFoundException;
+import com.testtask.doctorvisittracking.exception.TooManyRequestsException;
+import com.testtask.doctorvisittracking.service.AsyncBookingQueue.QueuedBooking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static com.testtask.doctorvisittracking.dto.BookingStatus.*;
+import static java.time.LocalDateTime.of;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncBookingQueueTest {
+
+    @Mock
+    private VisitService visitService;
+
+    private final VisitProperties visitProperties = new VisitProperties();
+
+    private AsyncBookingQueue asyncBookingQueue;
+
+    @BeforeEach
+    void setUp() {
+        visitProperties.getAsyncBooking().setPartitions(2);
+        visitProperties.getAsyncBooking().setCapacity(2);
+        asyncBookingQueue = new AsyncBookingQueue(visitService, visitProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void submitTest() {
+        VisitRequest visitRequest = createRequest(2L);
+        BookingStatusResponse booking = asyncBookingQueue.submit(visitRequest);
+        assertEquals(PENDING, booking.status());
+        assertEquals(booking, asyncBookingQueue.getStatus(booking.bookingId()));
+        verify(visitService).validateDuration(visitRequest);
+    }
+
+    @Test
+    void keepPendingBookingBeyondResultsCapacityTest() {
+        visitProperties.getAsyncBooking().setResultsMaximumSize(0);
+        AsyncBookingQueue boundedQueue = new AsyncBookingQueue(visitService, visitProperties,
+                new SimpleMeterRegistry());
+        BookingStatusResponse booking = boundedQueue.submit(createRequest(2L));
+        assertEquals(PENDING, boundedQueue.getStatus(booking.bookingId()).status());
+    }
+
+    @Test
+    void submitToFullPartitionTest() {
+        asyncBookingQueue.submit(createRequest(2L));
+        TooManyRequestsException exception = assertThrowsExactly(TooManyRequestsException.class,
+                () -> asyncBookingQueue.submit(createRequest(4L)));
+        assertEquals("Booking queue is full, please retry", exception.getMessage());
+        assertEquals(PENDING, asyncBookingQueue.submit(createRequest(3L)).status());
+    }
+
+    @Test
+    void getStatusOfUnknownBookingTest() {
+        ResourceNotFoundException exception = assertThrowsExactly(ResourceNotFoundException.class,
+                () -> asyncBookingQueue.getStatus("unknown"));
+        assertEquals("Booking not found", exception.getMessage());
+    }
+
+    @Test
+    void processTest() {
+        VisitRequest first = createRequest(2L);
+        VisitRequest second = createRequest(2L);
+        VisitResponse visit = new VisitResponse("Jane", "Marry", "Stan", "Torry", of(2025, 2, 20, 8, 0),
+                of(2025, 2, 20, 8, 30));
+        when(visitService.createVisits(List.of(first, second))).thenReturn(List.of(
+                new VisitBatchItemResponse(0, BatchItemStatus.BOOKED, null, visit),
+                new VisitBatchItemResponse(1, BatchItemStatus.CONFLICT, "Doctor is already booked for this time",
+                        null)));
+        asyncBookingQueue.process(List.of(new QueuedBooking("first", first), new QueuedBooking("second", second)));
+        assertEquals(new BookingStatusResponse("first", BOOKED, null, visit), asyncBookingQueue.getStatus("first"));
+        assertEquals(CONFLICT, asyncBookingQueue.getStatus("second").status());
+    }
+
+    @Test
+    void processFailedBatchTest() {
+        VisitRequest visitRequest = createRequest(2L);
+        when(visitService.createVisits(List.of(visitRequest)))
+                .thenThrow(new TooManyRequestsException("Doctor schedule is busy, please retry"));
+        asyncBookingQueue.process(List.of(new QueuedBooking("first", visitRequest)));
+        BookingStatusResponse status = asyncBookingQueue.getStatus("first");
+        assertEquals(FAILED, status.status());
+        assertEquals("Doctor schedule is busy, please retry", status.message());
+    }
+
+    @Test
+    void processFailedBatchItemByItemTest() {
+        VisitRequest first = createRequest(2L);
+        VisitRequest second = createRequest(3L);
+        VisitResponse visit = new VisitResponse("Jane", "Marry", "Stan", "Torry", of(2025, 2, 20, 8, 0),
+                of(2025, 2, 20, 8, 30));
+        when(visitService.createVisits(List.of(first, second)))
+                .thenThrow(new TooManyRequestsException("Doctor schedule is busy, please retry"));
+        when(visitService.createVisits(List.of(first)))
+                .thenThrow(new TooManyRequestsException("Doctor schedule is busy, please retry"));
+        when(visitService.createVisits(List.of(second)))
+                .thenReturn(List.of(new VisitBatchItemResponse(0, BatchItemStatus.BOOKED, null, visit)));
+        asyncBookingQueue.process(List.of(new QueuedBooking("first", first), new QueuedBooking("second", second)));
+        assertEquals(FAILED, asyncBookingQueue.getStatus("first").status());
+        assertEquals(new BookingStatusResponse("second", BOOKED, null, visit), asyncBookingQueue.getStatus("second"));
+    }
+
+    private static VisitRequest createRequest(Long doctorId) {
+        return new VisitRequest(VisitDateTimeParser.parse("2025-02-20 10:00:00+02:00"),
+                VisitDateTimeParser.parse("2025-02-20 10:30:00+02:00"), 1L, doctorId);
+    }
+
+}
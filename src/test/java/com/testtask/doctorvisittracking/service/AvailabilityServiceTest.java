@@ -0,0 +1,111 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.DoctorAvailabilityResponse;
+import com.testtask.doctorvisittracking.dto.DoctorTimeZone;
+import com.testtask.doctorvisittracking.dto.FreeSlotDto;
+import com.testtask.doctorvisittracking.dto.VisitInterval;
+import com.testtask.doctorvisittracking.exception.BadRequestException;
+import com.testtask.doctorvisittracking.exception.ResourceNotFoundException;
+import com.testtask.doctorvisittracking.repository.DoctorRepository;
+import com.testtask.doctorvisittracking.repository.VisitRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static java.time.LocalDateTime.of;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private VisitRepository visitRepository;
+
+    @Spy
+    private VisitProperties visitProperties = new VisitProperties();
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    @AfterEach
+    void tearDown() {
+        availabilityService.shutdown();
+    }
+
+    @Test
+    void getAvailabilityTest() {
+        when(doctorRepository.findTimeZonesByIdIn(List.of(2L))).thenReturn(List.of(createDoctor(2L)));
+        when(visitRepository.findIntervals(List.of(2L), of(2025, 2, 19, 9, 0), of(2025, 2, 20, 9, 0),
+                of(2025, 2, 20, 11, 0)))
+                .thenReturn(List.of(new VisitInterval(2L, of(2025, 2, 20, 9, 0), of(2025, 2, 20, 9, 20))));
+        DoctorAvailabilityResponse response = availabilityService.getAvailability(2L, of(2025, 2, 20, 9, 0),
+                of(2025, 2, 20, 11, 0), 30);
+        assertEquals("Europe/Kyiv", response.timeZone());
+        assertEquals(List.of(new FreeSlotDto(of(2025, 2, 20, 9, 30), of(2025, 2, 20, 10, 0)),
+                new FreeSlotDto(of(2025, 2, 20, 10, 0), of(2025, 2, 20, 10, 30)),
+                new FreeSlotDto(of(2025, 2, 20, 10, 30), of(2025, 2, 20, 11, 0))), response.freeSlots());
+    }
+
+    @Test
+    void getAvailabilityOfManyDoctorsTest() {
+        when(doctorRepository.findTimeZonesByIdIn(List.of(2L, 3L)))
+                .thenReturn(List.of(createDoctor(3L), createDoctor(2L)));
+        when(visitRepository.findIntervals(List.of(2L, 3L), of(2025, 2, 19, 9, 0), of(2025, 2, 20, 9, 0),
+                of(2025, 2, 20, 10, 0)))
+                .thenReturn(List.of(new VisitInterval(3L, of(2025, 2, 20, 9, 0), of(2025, 2, 20, 10, 0))));
+        List<DoctorAvailabilityResponse> responses = availabilityService.getAvailability(List.of(2L, 3L, 2L),
+                of(2025, 2, 20, 9, 0), of(2025, 2, 20, 10, 0), 60);
+        assertEquals(List.of(2L, 3L), responses.stream().map(DoctorAvailabilityResponse::doctorId).toList());
+        assertEquals(1, responses.getFirst().freeSlots().size());
+        assertTrue(responses.getLast().freeSlots().isEmpty());
+    }
+
+    @Test
+    void getAvailabilityWithDoctorNotFoundExceptionTest() {
+        when(doctorRepository.findTimeZonesByIdIn(List.of(2L, 3L))).thenReturn(List.of(createDoctor(2L)));
+        ResourceNotFoundException exception = assertThrowsExactly(ResourceNotFoundException.class,
+                () -> availabilityService.getAvailability(List.of(2L, 3L), of(2025, 2, 20, 9, 0),
+                        of(2025, 2, 20, 10, 0), 30));
+        assertEquals("Doctor not found", exception.getMessage());
+        verifyNoInteractions(visitRepository);
+    }
+
+    @Test
+    void getAvailabilityWithInvalidRangeTest() {
+        assertThrowsExactly(BadRequestException.class,
+                () -> availabilityService.getAvailability(2L, of(2025, 2, 20, 10, 0), of(2025, 2, 20, 9, 0), 30));
+        assertThrowsExactly(BadRequestException.class,
+                () -> availabilityService.getAvailability(2L, of(2025, 2, 20, 9, 0), of(2025, 4, 20, 9, 0), 30));
+        assertThrowsExactly(BadRequestException.class,
+                () -> availabilityService.getAvailability(2L, of(2025, 2, 20, 9, 0), of(2025, 2, 20, 10, 0), 0));
+        verifyNoInteractions(doctorRepository, visitRepository);
+    }
+
+    @Test
+    void getAvailabilityWithTooManySlotsTest() {
+        visitProperties.getAvailability().setMaxSlots(100);
+        BadRequestException exception = assertThrowsExactly(BadRequestException.class,
+                () -> availabilityService.getAvailability(List.of(2L, 3L), of(2025, 2, 20, 9, 0),
+                        of(2025, 2, 21, 9, 0), 15));
+        assertEquals("Request must not cover more than 100 slots, use a longer slot, a shorter range or fewer "
+                + "doctors", exception.getMessage());
+        verifyNoInteractions(doctorRepository, visitRepository);
+    }
+
+    private static DoctorTimeZone createDoctor(Long id) {
+        return new DoctorTimeZone(id, "Europe/Kyiv");
+    }
+
+}
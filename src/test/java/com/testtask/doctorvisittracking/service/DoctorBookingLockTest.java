@@ -0,0 +1,93 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorBookingLockTest {
+
+    @Test
+    void serializesBookingsForOneDoctorTest() throws InterruptedException {
+        DoctorBookingLock doctorBookingLock = new DoctorBookingLock(new VisitProperties());
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger maxHolders = new AtomicInteger();
+        int threads = 64;
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    return doctorBookingLock.withLock(1L, () -> {
+                        maxHolders.accumulateAndGet(holders.incrementAndGet(), Math::max);
+                        Thread.yield();
+                        return holders.decrementAndGet();
+                    });
+                });
+            }
+            start.countDown();
+        }
+        assertEquals(1, maxHolders.get());
+    }
+
+    @Test
+    void doesNotBlockOtherDoctorsTest() throws InterruptedException {
+        DoctorBookingLock doctorBookingLock = new DoctorBookingLock(createProperties(Duration.ofMillis(50)));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(() -> doctorBookingLock.withLock(1L, () -> {
+                locked.countDown();
+                awaitQuietly(release);
+                return null;
+            }));
+            assertTrue(locked.await(5, SECONDS));
+            assertEquals(2L, doctorBookingLock.withLock(2L, () -> 2L));
+            release.countDown();
+        }
+    }
+
+    @Test
+    void failsFastWhenDoctorIsBusyTest() throws InterruptedException {
+        DoctorBookingLock doctorBookingLock = new DoctorBookingLock(createProperties(Duration.ofMillis(50)));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(() -> doctorBookingLock.withLock(1L, () -> {
+                locked.countDown();
+                awaitQuietly(release);
+                return null;
+            }));
+            assertTrue(locked.await(5, SECONDS));
+            TooManyRequestsException exception = assertThrowsExactly(TooManyRequestsException.class,
+                    () -> doctorBookingLock.withLock(1L, () -> null));
+            assertEquals("Doctor schedule is busy, please retry", exception.getMessage());
+            release.countDown();
+        }
+    }
+
+    private static VisitProperties createProperties(Duration lockTimeout) {
+        VisitProperties visitProperties = new VisitProperties();
+        visitProperties.getBooking().setLockTimeout(lockTimeout);
+        return visitProperties;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.entity.DoctorPatientCount;
+import com.testtask.doctorvisittracking.repository.DoctorPatientCountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorPatientCounterTest {
+
+    @Mock
+    private DoctorPatientCountRepository doctorPatientCountRepository;
+
+    @InjectMocks
+    private DoctorPatientCounter doctorPatientCounter;
+
+    @Test
+    void registerVisitForNewPatientTest() {
+        when(doctorPatientCountRepository.insertDoctorPatient(2L, 1L)).thenReturn(1);
+        doctorPatientCounter.registerVisit(2L, 1L);
+        verify(doctorPatientCountRepository).incrementTotalPatients(2L);
+    }
+
+    @Test
+    void registerVisitForKnownPatientTest() {
+        when(doctorPatientCountRepository.insertDoctorPatient(2L, 1L)).thenReturn(0);
+        doctorPatientCounter.registerVisit(2L, 1L);
+        verify(doctorPatientCountRepository, never()).incrementTotalPatients(any(Long.class));
+    }
+
+    @Test
+    void getTotalPatientsTest() {
+        when(doctorPatientCountRepository.findByDoctorIdIn(Set.of(2L, 3L)))
+                .thenReturn(List.of(createCount(2L, 5L), createCount(3L, 1L)));
+        Map<Long, Long> totalPatients = doctorPatientCounter.getTotalPatients(Set.of(2L, 3L));
+        assertEquals(Map.of(2L, 5L, 3L, 1L), totalPatients);
+    }
+
+    @Test
+    void getTotalPatientsForEmptyPageTest() {
+        assertTrue(doctorPatientCounter.getTotalPatients(Set.of()).isEmpty());
+        verifyNoInteractions(doctorPatientCountRepository);
+    }
+
+    private static DoctorPatientCount createCount(long doctorId, long totalPatients) {
+        DoctorPatientCount count = new DoctorPatientCount();
+        count.setDoctorId(doctorId);
+        count.setTotalPatients(totalPatients);
+        return count;
+    }
+
+}
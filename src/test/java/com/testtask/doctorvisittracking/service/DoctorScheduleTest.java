@@ -0,0 +1,73 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.dto.FreeSlotDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static java.time.LocalDateTime.of;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorScheduleTest {
+
+    @Test
+    void overlapsTest() {
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.add(of(2025, 2, 20, 10, 0), of(2025, 2, 20, 10, 30));
+        assertTrue(schedule.overlaps(of(2025, 2, 20, 10, 15), of(2025, 2, 20, 10, 45)));
+        assertTrue(schedule.overlaps(of(2025, 2, 20, 9, 0), of(2025, 2, 20, 11, 0)));
+        assertTrue(schedule.overlaps(of(2025, 2, 20, 10, 30), of(2025, 2, 20, 11, 0)));
+        assertFalse(schedule.overlaps(of(2025, 2, 20, 10, 31), of(2025, 2, 20, 11, 0)));
+        assertFalse(schedule.overlaps(of(2025, 2, 20, 9, 0), of(2025, 2, 20, 9, 59)));
+    }
+
+    @Test
+    void mergesOverlappingIntervalsTest() {
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.add(of(2025, 2, 20, 10, 0), of(2025, 2, 20, 12, 0));
+        schedule.add(of(2025, 2, 20, 10, 30), of(2025, 2, 20, 11, 0));
+        schedule.add(of(2025, 2, 20, 14, 0), of(2025, 2, 20, 15, 0));
+        assertEquals(2, schedule.size());
+        assertTrue(schedule.overlaps(of(2025, 2, 20, 11, 30), of(2025, 2, 20, 11, 45)));
+        schedule.add(of(2025, 2, 20, 11, 0), of(2025, 2, 20, 14, 0));
+        assertEquals(1, schedule.size());
+        assertTrue(schedule.overlaps(of(2025, 2, 20, 13, 0), of(2025, 2, 20, 13, 10)));
+        assertFalse(schedule.overlaps(of(2025, 2, 20, 15, 1), of(2025, 2, 20, 16, 0)));
+    }
+
+    @Test
+    void evictEndedBeforeTest() {
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.add(of(2024, 1, 10, 10, 0), of(2024, 1, 10, 11, 0));
+        schedule.add(of(2024, 3, 10, 10, 0), of(2024, 3, 10, 11, 0));
+        schedule.add(of(2025, 2, 20, 10, 0), of(2025, 2, 20, 11, 0));
+        assertEquals(2, schedule.evictEndedBefore(of(2024, 3, 10, 12, 0)));
+        assertEquals(1, schedule.size());
+        assertFalse(schedule.overlaps(of(2024, 1, 10, 10, 15), of(2024, 1, 10, 10, 45)));
+        assertTrue(schedule.overlaps(of(2025, 2, 20, 10, 15), of(2025, 2, 20, 10, 45)));
+    }
+
+    @Test
+    void freeSlotsTest() {
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.add(of(2025, 2, 20, 8, 0), of(2025, 2, 20, 9, 10));
+        schedule.add(of(2025, 2, 20, 10, 0), of(2025, 2, 20, 10, 30));
+        schedule.add(of(2025, 2, 20, 12, 0), of(2025, 2, 20, 13, 0));
+        List<FreeSlotDto> freeSlots = schedule.freeSlots(of(2025, 2, 20, 9, 0), of(2025, 2, 20, 12, 0),
+                Duration.ofMinutes(30));
+        assertEquals(List.of(new FreeSlotDto(of(2025, 2, 20, 11, 0), of(2025, 2, 20, 11, 30))), freeSlots);
+        freeSlots.forEach(slot -> assertFalse(schedule.overlaps(slot.startDateTime(), slot.endDateTime())));
+    }
+
+    @Test
+    void freeSlotsOfEmptyScheduleTest() {
+        List<FreeSlotDto> freeSlots = new DoctorSchedule().freeSlots(of(2025, 2, 20, 9, 0), of(2025, 2, 20, 10, 10),
+                Duration.ofMinutes(30));
+        assertEquals(List.of(new FreeSlotDto(of(2025, 2, 20, 9, 0), of(2025, 2, 20, 9, 30)),
+                new FreeSlotDto(of(2025, 2, 20, 9, 30), of(2025, 2, 20, 10, 0))), freeSlots);
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testtask.doctorvisittracking.dto.PatientDto;
+import com.testtask.doctorvisittracking.dto.PatientVisitRow;
+import com.testtask.doctorvisittracking.repository.VisitRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.LocalDateTime.of;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PatientExportServiceTest {
+
+    @Mock
+    private VisitRepository visitRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private PatientExportService patientExportService;
+
+    @Test
+    void exportPatientsWithVisitsTest() throws IOException {
+        when(visitRepository.streamPatientVisitRowsByDoctorIds("marry", List.of(2L))).thenReturn(Stream.of(
+                createRow(1L, "Jane", "Marry", 10),
+                createRow(1L, "Jane", "Marry", 11),
+                createRow(3L, "Sam", "Marry", 12)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        patientExportService.exportPatientsWithVisits("Marry", List.of(2L), outputStream);
+        String[] lines = outputStream.toString(UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        PatientDto firstPatientDto = objectMapper.readValue(lines[0], PatientDto.class);
+        assertEquals("Jane", firstPatientDto.patientFirstName());
+        assertEquals(2, firstPatientDto.visits().size());
+        assertEquals(4, firstPatientDto.visits().getFirst().doctor().totalPatients());
+        PatientDto lastPatientDto = objectMapper.readValue(lines[1], PatientDto.class);
+        assertEquals("Sam", lastPatientDto.patientFirstName());
+        assertEquals(1, lastPatientDto.visits().size());
+    }
+
+    @Test
+    void exportWithoutMatchesTest() throws IOException {
+        when(visitRepository.streamPatientVisitRows(null)).thenReturn(Stream.empty());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        patientExportService.exportPatientsWithVisits("", List.of(), outputStream);
+        assertTrue(outputStream.toString(UTF_8).isEmpty());
+    }
+
+    private static PatientVisitRow createRow(long patientId, String firstName, String lastName, int hour) {
+        return new PatientVisitRow(patientId, firstName, lastName, of(2025, 2, 20, hour, 0),
+                of(2025, 2, 20, hour, 30), "John", "Torry", 4L);
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.PatientListing;
+import com.testtask.doctorvisittracking.dto.PatientResponse;
+import com.testtask.doctorvisittracking.dto.VisitEventMessage;
+import com.testtask.doctorvisittracking.service.PatientListingCache.CachedListing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.testtask.doctorvisittracking.dto.PatientMatch.EXACT;
+import static com.testtask.doctorvisittracking.entity.VisitEventType.BOOKED;
+import static java.time.LocalDateTime.of;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PatientListingCacheTest {
+
+    @Mock
+    private VisitService visitService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PatientListingCache patientListingCache;
+
+    @BeforeEach
+    void setUp() {
+        patientListingCache = new PatientListingCache(visitService,
+                new ObjectMapper().registerModule(new JavaTimeModule()), new VisitProperties(),
+                new SimpleMeterRegistry(), transactionManager);
+    }
+
+    @Test
+    void getPatientsFromCacheTest() {
+        when(visitService.getPatientListing(0, 2, "jane", EXACT, List.of(2L, 3L))).thenReturn(createListing());
+        CachedListing first = patientListingCache.getPatients(0, 2, "Jane", EXACT, List.of(3L, 2L, 3L));
+        CachedListing second = patientListingCache.getPatients(0, 2, "JANE", EXACT, List.of(2L, 3L));
+        assertSame(first, second);
+        assertTrue(first.etag().startsWith("\""));
+        verify(visitService).getPatientListing(0, 2, "jane", EXACT, List.of(2L, 3L));
+    }
+
+    @Test
+    void loadCachedListingFromPrimaryTest() {
+        when(visitService.getPatientListing(0, 2, "", EXACT, List.of())).thenReturn(createListing());
+        patientListingCache.getPatients(0, 2, "", EXACT, List.of());
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
+    @Test
+    void invalidateAffectedListingsTest() {
+        when(visitService.getPatientListing(0, 2, "", EXACT, List.of())).thenReturn(createListing());
+        CachedListing first = patientListingCache.getPatients(0, 2, "", EXACT, List.of());
+        patientListingCache.onVisitBooked(new VisitBookedEvent(9L, 7L));
+        assertSame(first, patientListingCache.getPatients(0, 2, "", EXACT, List.of()));
+        patientListingCache.onVisitBooked(new VisitBookedEvent(9L, 1L));
+        assertNotSame(first, patientListingCache.getPatients(0, 2, "", EXACT, List.of()));
+        verify(visitService, times(2)).getPatientListing(0, 2, "", EXACT, List.of());
+    }
+
+    @Test
+    void invalidateListingsShowingDoctorTest() {
+        when(visitService.getPatientListing(0, 2, "", EXACT, List.of(2L))).thenReturn(createListing());
+        CachedListing first = patientListingCache.getPatients(0, 2, "", EXACT, List.of(2L));
+        patientListingCache.onVisitBooked(new VisitBookedEvent(3L, 1L));
+        assertSame(first, patientListingCache.getPatients(0, 2, "", EXACT, List.of(2L)));
+        patientListingCache.onVisitBooked(new VisitBookedEvent(2L, 5L));
+        assertNotSame(first, patientListingCache.getPatients(0, 2, "", EXACT, List.of(2L)));
+    }
+
+    @Test
+    void invalidateListingsFromVisitEventsTest() {
+        when(visitService.getPatientListing(0, 2, "", EXACT, List.of())).thenReturn(createListing());
+        CachedListing first = patientListingCache.getPatients(0, 2, "", EXACT, List.of());
+        patientListingCache.onVisitEvents(List.of(createMessage(9L, 7L)));
+        assertSame(first, patientListingCache.getPatients(0, 2, "", EXACT, List.of()));
+        patientListingCache.onVisitEvents(List.of(createMessage(9L, 7L), createMessage(9L, 1L)));
+        assertNotSame(first, patientListingCache.getPatients(0, 2, "", EXACT, List.of()));
+    }
+
+    @Test
+    void skipCachingListingLoadedDuringInvalidationTest() {
+        when(visitService.getPatientListing(0, 2, "", EXACT, List.of())).thenAnswer(invocation -> {
+            patientListingCache.onVisitBooked(new VisitBookedEvent(9L, 7L));
+            return createListing();
+        });
+        CachedListing first = patientListingCache.getPatients(0, 2, "", EXACT, List.of());
+        assertNotSame(first, patientListingCache.getPatients(0, 2, "", EXACT, List.of()));
+    }
+
+    private static VisitEventMessage createMessage(Long doctorId, Long patientId) {
+        return new VisitEventMessage(1L, BOOKED, 100L, doctorId, patientId, of(2025, 2, 20, 10, 0),
+                of(2025, 2, 20, 10, 30), of(2025, 2, 19, 9, 0));
+    }
+
+    private static PatientListing createListing() {
+        return new PatientListing(new PageImpl<>(List.of(new PatientResponse(List.of())), PageRequest.of(0, 2), 2),
+                List.of(1L, 2L), Set.of(2L));
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.PatientInfo;
+import com.testtask.doctorvisittracking.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.testtask.doctorvisittracking.dto.PatientMatch.FUZZY;
+import static com.testtask.doctorvisittracking.dto.PatientMatch.PREFIX;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PatientNameIndexTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Spy
+    private VisitProperties visitProperties = new VisitProperties();
+
+    @InjectMocks
+    private PatientNameIndex patientNameIndex;
+
+    @BeforeEach
+    void warmUp() {
+        when(patientRepository.streamNames()).thenReturn(Stream.of(
+                new PatientInfo(1L, "Jane", "Marry"),
+                new PatientInfo(2L, "Sam", "Elliot"),
+                new PatientInfo(3L, "Mark", "Johnson"),
+                new PatientInfo(4L, "Maria", "Jonson")));
+        patientNameIndex.warmUp();
+    }
+
+    @Test
+    void findByPrefixTest() {
+        assertEquals(List.of(1L, 3L, 4L), patientNameIndex.find("Ma", PREFIX, 0L, 10));
+        assertEquals(List.of(3L, 4L), patientNameIndex.find("jo", PREFIX, 0L, 10));
+        assertEquals(List.of(), patientNameIndex.find("x", PREFIX, 0L, 10));
+    }
+
+    @Test
+    void findByPrefixOfEveryTokenTest() {
+        assertEquals(List.of(4L), patientNameIndex.find("mar jon", PREFIX, 0L, 10));
+        assertEquals(List.of(1L), patientNameIndex.find("jane m", PREFIX, 0L, 10));
+    }
+
+    @Test
+    void findFuzzyTest() {
+        assertEquals(List.of(3L, 4L), patientNameIndex.find("jonsen", FUZZY, 0L, 10));
+        assertEquals(List.of(2L), patientNameIndex.find("eliot", FUZZY, 0L, 10));
+        assertEquals(List.of(1L), patientNameIndex.find("jame", FUZZY, 0L, 10));
+        assertEquals(List.of(), patientNameIndex.find("smith", FUZZY, 0L, 10));
+    }
+
+    @Test
+    void putAndRemoveKeepIndexCurrentTest() {
+        patientNameIndex.put(5L, "Marta", "Smith");
+        assertEquals(List.of(1L, 3L, 4L, 5L), patientNameIndex.find("ma", PREFIX, 0L, 10));
+        patientNameIndex.put(1L, "Jane", "Doe");
+        assertEquals(List.of(3L, 4L, 5L), patientNameIndex.find("ma", PREFIX, 0L, 10));
+        patientNameIndex.remove(5L);
+        assertEquals(List.of(3L, 4L), patientNameIndex.find("ma", PREFIX, 0L, 10));
+        assertEquals(List.of(1L), patientNameIndex.find("doe", PREFIX, 0L, 10));
+    }
+
+    @Test
+    void isWithinEditsTest() {
+        assertTrue(PatientNameIndex.isWithinEdits("johnson", "jonson", 1));
+        assertTrue(PatientNameIndex.isWithinEdits("marry", "mary", 1));
+        assertFalse(PatientNameIndex.isWithinEdits("elliot", "smith", 2));
+    }
+
+    @Test
+    void findPageAfterIdTest() {
+        assertEquals(List.of(3L), patientNameIndex.find("ma", PREFIX, 1L, 1));
+        assertEquals(List.of(4L), patientNameIndex.find("ma", PREFIX, 3L, 10));
+        assertEquals(List.of(), patientNameIndex.find("ma", PREFIX, 4L, 10));
+    }
+
+    @Test
+    void warmUpDisabledTest() {
+        visitProperties.getPatientSearch().setEnabled(false);
+        PatientNameIndex disabledIndex = new PatientNameIndex(patientRepository, visitProperties);
+        disabledIndex.warmUp();
+        assertFalse(disabledIndex.isReady());
+        assertTrue(patientNameIndex.isReady());
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.DailyUtilizationDto;
+import com.testtask.doctorvisittracking.dto.DoctorTimeZone;
+import com.testtask.doctorvisittracking.dto.DoctorUtilizationDto;
+import com.testtask.doctorvisittracking.dto.UtilizationReportResponse;
+import com.testtask.doctorvisittracking.dto.UtilizationRow;
+import com.testtask.doctorvisittracking.exception.BadRequestException;
+import com.testtask.doctorvisittracking.exception.ResourceNotFoundException;
+import com.testtask.doctorvisittracking.repository.DoctorRepository;
+import com.testtask.doctorvisittracking.repository.VisitReportRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UtilizationReportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 2, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 2, 28);
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private VisitReportRepository visitReportRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final VisitProperties visitProperties = new VisitProperties();
+
+    private UtilizationReportService utilizationReportService;
+
+    @BeforeEach
+    void setUp() {
+        visitProperties.getReport().setShardSize(1);
+        utilizationReportService = new UtilizationReportService(doctorRepository, visitReportRepository,
+                new VisitMetrics(new SimpleMeterRegistry()), visitProperties, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        utilizationReportService.shutdown();
+    }
+
+    @Test
+    void getUtilizationTest() {
+        when(doctorRepository.findAllTimeZones(PageRequest.of(0, 10001))).thenReturn(List.of(new DoctorTimeZone(2L, "Europe/Kyiv"),
+                new DoctorTimeZone(3L, "UTC")));
+        when(visitReportRepository.findUtilization(eq(List.of(2L)), eq(FROM.atStartOfDay()),
+                eq(TO.plusDays(1).atStartOfDay()), any(Duration.class)))
+                .thenReturn(List.of(new UtilizationRow(2L, LocalDate.of(2025, 2, 21), 1, 30, 1),
+                        new UtilizationRow(2L, LocalDate.of(2025, 2, 20), 2, 90, 2),
+                        new UtilizationRow(2L, null, 3, 120, 2),
+                        new UtilizationRow(null, null, 3, 120, 2)));
+        when(visitReportRepository.findUtilization(eq(List.of(3L)), eq(FROM.atStartOfDay()),
+                eq(TO.plusDays(1).atStartOfDay()), any(Duration.class)))
+                .thenReturn(List.of());
+        UtilizationReportResponse response = utilizationReportService.getUtilization(List.of(), FROM, TO);
+        assertTrue(response.complete());
+        assertEquals(List.of(new DoctorUtilizationDto(2L, "Europe/Kyiv", 3, 120, 2, List.of(
+                        new DailyUtilizationDto(LocalDate.of(2025, 2, 20), 2, 90, 2),
+                        new DailyUtilizationDto(LocalDate.of(2025, 2, 21), 1, 30, 1))),
+                new DoctorUtilizationDto(3L, "UTC", 0, 0, 0, List.of())), response.doctors());
+    }
+
+    @Test
+    void getUtilizationOverLatencyBudgetTest() {
+        visitProperties.getReport().setLatencyBudget(Duration.ofMillis(50));
+        when(doctorRepository.findTimeZonesByIdIn(List.of(2L, 3L))).thenReturn(List.of(
+                new DoctorTimeZone(2L, "UTC"), new DoctorTimeZone(3L, "UTC")));
+        when(visitReportRepository.findUtilization(eq(List.of(2L)), eq(FROM.atStartOfDay()),
+                eq(TO.plusDays(1).atStartOfDay()), any(Duration.class)))
+                .thenReturn(List.of());
+        when(visitReportRepository.findUtilization(eq(List.of(3L)), eq(FROM.atStartOfDay()),
+                eq(TO.plusDays(1).atStartOfDay()), any(Duration.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(1000);
+                    return List.of();
+                });
+        UtilizationReportResponse response = utilizationReportService.getUtilization(List.of(2L, 3L), FROM, TO);
+        assertFalse(response.complete());
+        assertEquals(List.of(2L), response.doctors().stream().map(DoctorUtilizationDto::doctorId).toList());
+    }
+
+    @Test
+    void getUtilizationWithFailedShardTest() {
+        when(doctorRepository.findTimeZonesByIdIn(List.of(2L, 3L))).thenReturn(List.of(
+                new DoctorTimeZone(2L, "UTC"), new DoctorTimeZone(3L, "UTC")));
+        when(visitReportRepository.findUtilization(eq(List.of(2L)), eq(FROM.atStartOfDay()),
+                eq(TO.plusDays(1).atStartOfDay()), any(Duration.class)))
+                .thenThrow(new QueryTimeoutException("Query timed out"));
+        when(visitReportRepository.findUtilization(eq(List.of(3L)), eq(FROM.atStartOfDay()),
+                eq(TO.plusDays(1).atStartOfDay()), any(Duration.class)))
+                .thenReturn(List.of());
+        UtilizationReportResponse response = utilizationReportService.getUtilization(List.of(2L, 3L), FROM, TO);
+        assertFalse(response.complete());
+        assertEquals(List.of(3L), response.doctors().stream().map(DoctorUtilizationDto::doctorId).toList());
+    }
+
+    @Test
+    void getUtilizationForAllDoctorsOverMaxDoctorsTest() {
+        visitProperties.getReport().setMaxDoctors(1);
+        when(doctorRepository.findAllTimeZones(PageRequest.of(0, 2))).thenReturn(List.of(
+                new DoctorTimeZone(2L, "UTC"), new DoctorTimeZone(3L, "UTC")));
+        assertThrowsExactly(BadRequestException.class,
+                () -> utilizationReportService.getUtilization(List.of(), FROM, TO));
+        verifyNoInteractions(visitReportRepository);
+    }
+
+    @Test
+    void getUtilizationWithDoctorNotFoundExceptionTest() {
+        when(doctorRepository.findTimeZonesByIdIn(List.of(2L, 4L))).thenReturn(List.of(new DoctorTimeZone(2L, "UTC")));
+        ResourceNotFoundException exception = assertThrowsExactly(ResourceNotFoundException.class,
+                () -> utilizationReportService.getUtilization(List.of(2L, 4L), FROM, TO));
+        assertEquals("Doctor not found", exception.getMessage());
+    }
+
+    @Test
+    void getUtilizationWithInvalidRangeTest() {
+        assertThrowsExactly(BadRequestException.class,
+                () -> utilizationReportService.getUtilization(List.of(), TO, FROM));
+        assertThrowsExactly(BadRequestException.class,
+                () -> utilizationReportService.getUtilization(List.of(), FROM, FROM.plusYears(2)));
+        verifyNoInteractions(doctorRepository, visitReportRepository);
+    }
+
+}
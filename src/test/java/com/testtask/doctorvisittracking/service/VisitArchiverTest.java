@@ -0,0 +1,75 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.repository.VisitPartitionRepository;
+import com.testtask.doctorvisittracking.repository.VisitRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.domain.PageRequest.of;
+
+@ExtendWith(MockitoExtension.class)
+class VisitArchiverTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 15, 3, 30);
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2025, 3, 15, 3, 30);
+
+    @Mock
+    private VisitRepository visitRepository;
+
+    @Mock
+    private VisitPartitionRepository visitPartitionRepository;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private VisitProperties visitProperties = new VisitProperties();
+
+    @InjectMocks
+    private VisitArchiver visitArchiver;
+
+    @Test
+    void archiveInBatchesTest() {
+        visitProperties.getArchive().setBatchSize(2);
+        when(visitRepository.findIdsEndedBefore(CUTOFF, of(0, 2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(visitRepository.deleteArchived(List.of(1L, 2L), CUTOFF)).thenReturn(2);
+        when(visitRepository.deleteArchived(List.of(3L), CUTOFF)).thenReturn(1);
+        visitArchiver.archive(NOW);
+        verify(visitRepository).copyToArchive(List.of(1L, 2L), CUTOFF);
+        verify(visitRepository).copyToArchive(List.of(3L), CUTOFF);
+        verify(visitRepository, times(2)).findIdsEndedBefore(CUTOFF, of(0, 2));
+    }
+
+    @Test
+    void archiveDropsEmptyPastPartitionsTest() {
+        when(visitRepository.findIdsEndedBefore(CUTOFF, of(0, 5000))).thenReturn(List.of());
+        when(visitPartitionRepository.findMonthlyPartitions()).thenReturn(List.of(YearMonth.of(2025, 1),
+                YearMonth.of(2025, 2), YearMonth.of(2025, 3), YearMonth.of(2026, 6)));
+        when(visitPartitionRepository.isEmpty(YearMonth.of(2025, 1))).thenReturn(true);
+        when(visitPartitionRepository.isEmpty(YearMonth.of(2025, 2))).thenReturn(false);
+        visitArchiver.archive(NOW);
+        verify(visitPartitionRepository).dropMonthlyPartition(YearMonth.of(2025, 1));
+        verify(visitPartitionRepository, never()).dropMonthlyPartition(YearMonth.of(2025, 2));
+        verify(visitPartitionRepository, never()).isEmpty(YearMonth.of(2025, 3));
+        verify(visitRepository, never()).copyToArchive(any(), any());
+    }
+
+}
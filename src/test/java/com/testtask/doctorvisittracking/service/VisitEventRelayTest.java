@@ -0,0 +1,127 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.VisitEventMessage;
+import com.testtask.doctorvisittracking.entity.VisitEvent;
+import com.testtask.doctorvisittracking.repository.VisitEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.testtask.doctorvisittracking.entity.VisitEventType.BOOKED;
+import static java.time.LocalDateTime.of;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.domain.PageRequest.of;
+
+@ExtendWith(MockitoExtension.class)
+class VisitEventRelayTest {
+
+    @Mock
+    private VisitEventRepository visitEventRepository;
+
+    @Mock
+    private VisitEventSubscriber reminders;
+
+    @Mock
+    private VisitEventSubscriber billing;
+
+    @Mock
+    private ObjectProvider<VisitEventSubscriber> subscribers;
+
+    private final VisitProperties visitProperties = new VisitProperties();
+
+    private VisitEventRelay visitEventRelay;
+
+    @BeforeEach
+    void setUp() {
+        visitProperties.getOutbox().setBatchSize(2);
+        when(subscribers.orderedStream()).thenReturn(Stream.of(reminders, billing));
+        visitEventRelay = new VisitEventRelay(visitEventRepository, subscribers,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), visitProperties);
+    }
+
+    @Test
+    void relayTest() {
+        VisitEvent first = createEvent(1L, 2L);
+        VisitEvent second = createEvent(2L, 3L);
+        VisitEvent third = createEvent(3L, 2L);
+        when(visitEventRepository.findUnpublished(of(0, 2)))
+                .thenReturn(List.of(first, second), List.of(third));
+        visitEventRelay.relay();
+        InOrder inOrder = inOrder(reminders, billing, visitEventRepository);
+        inOrder.verify(reminders).onVisitEvents(List.of(createMessage(first), createMessage(second)));
+        inOrder.verify(billing).onVisitEvents(List.of(createMessage(first), createMessage(second)));
+        inOrder.verify(visitEventRepository).markPublished(any(), any(LocalDateTime.class));
+        inOrder.verify(reminders).onVisitEvents(List.of(createMessage(third)));
+        inOrder.verify(billing).onVisitEvents(List.of(createMessage(third)));
+        verify(visitEventRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(visitEventRepository).markPublished(eq(List.of(3L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void relayWithFailingSubscriberTest() {
+        VisitEvent event = createEvent(1L, 2L);
+        when(visitEventRepository.findUnpublished(of(0, 2))).thenReturn(List.of(event));
+        doThrow(new IllegalStateException("Reminders are unavailable")).when(reminders)
+                .onVisitEvents(List.of(createMessage(event)));
+        visitEventRelay.relay();
+        verify(billing, never()).onVisitEvents(any());
+        verify(visitEventRepository, never()).markPublished(anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void relayWithoutEventsTest() {
+        when(visitEventRepository.findUnpublished(of(0, 2))).thenReturn(List.of());
+        visitEventRelay.relay();
+        verify(visitEventRepository, times(1)).findUnpublished(of(0, 2));
+        verify(reminders, never()).onVisitEvents(any());
+    }
+
+    @Test
+    void relayWithoutSubscribersTest() {
+        when(subscribers.orderedStream()).thenReturn(Stream.empty());
+        VisitEventRelay relayWithoutSubscribers = new VisitEventRelay(visitEventRepository, subscribers,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), visitProperties);
+        relayWithoutSubscribers.relay();
+        verify(visitEventRepository, never()).findUnpublished(any());
+        verify(visitEventRepository, never()).markPublished(anyCollection(), any(LocalDateTime.class));
+    }
+
+    private static VisitEvent createEvent(Long id, Long doctorId) {
+        VisitEvent event = new VisitEvent();
+        event.setId(id);
+        event.setEventType(BOOKED);
+        event.setVisitId(id + 100);
+        event.setDoctorId(doctorId);
+        event.setPatientId(1L);
+        event.setStartDateTime(of(2025, 2, 20, 10, 0));
+        event.setEndDateTime(of(2025, 2, 20, 10, 30));
+        event.setCreatedAt(of(2025, 2, 19, 9, 0));
+        return event;
+    }
+
+    private static VisitEventMessage createMessage(VisitEvent event) {
+        return new VisitEventMessage(event.getId(), BOOKED, event.getVisitId(), event.getDoctorId(),
+                event.getPatientId(), event.getStartDateTime(), event.getEndDateTime(), event.getCreatedAt());
+    }
+
+}
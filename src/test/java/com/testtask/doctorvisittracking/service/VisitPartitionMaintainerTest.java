@@ -0,0 +1,52 @@
+package com.testtask.doctorvisittracking.service;
+
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.repository.VisitPartitionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VisitPartitionMaintainerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+
+    @Mock
+    private VisitPartitionRepository visitPartitionRepository;
+
+    @Spy
+    private VisitProperties visitProperties = new VisitProperties();
+
+    @InjectMocks
+    private VisitPartitionMaintainer visitPartitionMaintainer;
+
+    @Test
+    void addPartitionsAheadTest() {
+        when(visitPartitionRepository.findMonthlyPartitions()).thenReturn(List.of(YearMonth.of(2026, 4)));
+        visitPartitionMaintainer.addPartitions(TODAY);
+        verify(visitPartitionRepository).addMonthlyPartition(YearMonth.of(2026, 5));
+        verify(visitPartitionRepository).addMonthlyPartition(YearMonth.of(2026, 6));
+        verify(visitPartitionRepository, times(2)).addMonthlyPartition(any(YearMonth.class));
+    }
+
+    @Test
+    void skipAddingWhenTableIsNotPartitionedTest() {
+        when(visitPartitionRepository.findMonthlyPartitions()).thenReturn(List.of());
+        visitPartitionMaintainer.addPartitions(TODAY);
+        verify(visitPartitionRepository, never()).addMonthlyPartition(any(YearMonth.class));
+    }
+
+}
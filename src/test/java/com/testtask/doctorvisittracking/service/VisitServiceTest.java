@@ -1,36 +1,73 @@
 package com.testtask.doctorvisittracking.service;
 
+import com.testtask.doctorvisittracking.config.VisitProperties;
+import com.testtask.doctorvisittracking.dto.DoctorInfo;
+import com.testtask.doctorvisittracking.dto.PatientCursorResponse;
 import com.testtask.doctorvisittracking.dto.PatientDto;
+import com.testtask.doctorvisittracking.dto.PatientInfo;
+import com.testtask.doctorvisittracking.dto.PatientMatch;
 import com.testtask.doctorvisittracking.dto.PatientResponse;
+import com.testtask.doctorvisittracking.dto.VisitBatchItemResponse;
+import com.testtask.doctorvisittracking.dto.VisitDateTimeParser;
+import com.testtask.doctorvisittracking.dto.VisitInterval;
 import com.testtask.doctorvisittracking.dto.VisitRequest;
 import com.testtask.doctorvisittracking.dto.VisitResponse;
+import com.testtask.doctorvisittracking.dto.VisitRow;
 import com.testtask.doctorvisittracking.entity.Doctor;
 import com.testtask.doctorvisittracking.entity.Patient;
 import com.testtask.doctorvisittracking.entity.Visit;
+import com.testtask.doctorvisittracking.entity.VisitEvent;
+import com.testtask.doctorvisittracking.entity.VisitEventType;
 import com.testtask.doctorvisittracking.exception.BadRequestException;
+import com.testtask.doctorvisittracking.exception.BookingConflictException;
 import com.testtask.doctorvisittracking.exception.ResourceNotFoundException;
 import com.testtask.doctorvisittracking.repository.DoctorRepository;
 import com.testtask.doctorvisittracking.repository.PatientRepository;
+import com.testtask.doctorvisittracking.repository.PatientSearchRepository;
+import com.testtask.doctorvisittracking.repository.VisitEventRepository;
 import com.testtask.doctorvisittracking.repository.VisitRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.testtask.doctorvisittracking.dto.BatchItemStatus.*;
+import static com.testtask.doctorvisittracking.dto.PatientMatch.EXACT;
+import static com.testtask.doctorvisittracking.dto.PatientMatch.FUZZY;
+import static com.testtask.doctorvisittracking.dto.PatientMatch.PREFIX;
 import static java.time.LocalDateTime.of;
 import static java.util.Optional.of;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,44 +76,131 @@ class VisitServiceTest {
     @Mock
     private VisitRepository visitRepository;
 
+    @Mock
+    private VisitEventRepository visitEventRepository;
+
     @Mock
     private DoctorRepository doctorRepository;
 
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private PatientSearchRepository patientSearchRepository;
+
+    @Mock
+    private DoctorPatientCounter doctorPatientCounter;
+
+    @Mock
+    private LookupService lookupService;
+
+    @Mock
+    private DoctorScheduleIndex doctorScheduleIndex;
+
+    @Mock
+    private PatientNameIndex patientNameIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private DoctorBookingLock doctorBookingLock = new DoctorBookingLock(new VisitProperties());
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private VisitProperties visitProperties = new VisitProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private VisitMetrics visitMetrics = new VisitMetrics(meterRegistry);
+
     @InjectMocks
     private VisitService visitService;
 
     @Test
     void createVisitTest() {
         VisitRequest visitRequest = createRequest();
-        Doctor doctor = createDoctor();
-        Patient patient = createPatient(1L, "Jane", "Marry");
-        when(doctorRepository.findById(2L)).thenReturn(of(doctor));
-        when(patientRepository.findById(1L)).thenReturn(of(patient));
+        stubLookups();
         VisitResponse response = visitService.createVisit(visitRequest);
         assertNotNull(response);
         assertEquals("Marry", response.patientLastName());
         assertEquals("Torry", response.doctorLastName());
-        verify(visitRepository).findBookedVisit(any(LocalDateTime.class), any(LocalDateTime.class), any(Long.class));
+        verify(visitRepository).existsBookedVisit(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(Duration.class), any(Long.class));
         verify(visitRepository).save(any(Visit.class));
+        verify(visitEventRepository).save(argThat((VisitEvent event) ->
+                event.getEventType() == VisitEventType.BOOKED && event.getDoctorId() == 2L
+                        && event.getPatientId() == 1L));
+        verify(doctorPatientCounter).registerVisit(2L, 1L);
+        verify(eventPublisher).publishEvent(new VisitBookedEvent(2L, 1L));
+    }
+
+    @Test
+    void createVisitRecordsPhaseTimersTest() {
+        stubLookups();
+        visitService.createVisit(createRequest());
+        assertEquals(1, meterRegistry.get("visits.create").timer().count());
+        for (String phase : List.of("lookup", "conflict_check", "insert")) {
+            assertEquals(1, meterRegistry.get("visits.create.phase").tag("phase", phase).timer().count());
+        }
     }
 
     @Test
     void createVisitWithBadRequestExceptionTest() {
         VisitRequest visitRequest = createRequest();
-        Doctor doctor = createDoctor();
-        Patient patient = createPatient(1L, "Jane", "Marry");
-        when(doctorRepository.findById(2L)).thenReturn(of(doctor));
-        when(patientRepository.findById(1L)).thenReturn(of(patient));
-        when(visitRepository.findBookedVisit(any(LocalDateTime.class), any(LocalDateTime.class), any(Long.class)))
-                .thenReturn(Optional.of(new Visit()));
-        BadRequestException exception = assertThrowsExactly(BadRequestException.class,
+        stubLookups();
+        when(visitRepository.existsBookedVisit(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(Duration.class), any(Long.class)))
+                .thenReturn(true);
+        BookingConflictException exception = assertThrowsExactly(BookingConflictException.class,
                 () -> visitService.createVisit(visitRequest));
         assertEquals("Doctor is already booked for this time", exception.getMessage());
     }
 
+    @Test
+    void createVisitRejectedByScheduleIndexTest() {
+        stubLookups();
+        when(doctorScheduleIndex.isReady()).thenReturn(true);
+        when(doctorScheduleIndex.overlaps(2L, of(2025, 2, 20, 8, 0, 0), of(2025, 2, 20, 8, 30, 0)))
+                .thenReturn(true);
+        BookingConflictException exception = assertThrowsExactly(BookingConflictException.class,
+                () -> visitService.createVisit(createRequest()));
+        assertEquals("Doctor is already booked for this time", exception.getMessage());
+        verifyNoInteractions(visitRepository);
+    }
+
+    @Test
+    void createVisitTrustsAuthoritativeScheduleIndexTest() {
+        stubLookups();
+        when(doctorScheduleIndex.isReady()).thenReturn(true);
+        when(doctorScheduleIndex.isAuthoritative(any(LocalDateTime.class))).thenReturn(true);
+        visitService.createVisit(createRequest());
+        verify(visitRepository, never()).existsBookedVisit(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(Duration.class), any(Long.class));
+        verify(doctorScheduleIndex).add(2L, of(2025, 2, 20, 8, 0, 0), of(2025, 2, 20, 8, 30, 0));
+    }
+
+    @Test
+    void createVisitWithoutDatabaseLockTest() {
+        visitProperties.getBooking().setDatabaseLock(false);
+        stubLookups();
+        visitService.createVisit(createRequest());
+        verify(doctorRepository, never()).findByIdForUpdate(any(Long.class));
+        verify(visitRepository).save(any(Visit.class));
+    }
+
+    @Test
+    void createVisitLongerThanMaxVisitDurationTest() {
+        visitProperties.getBooking().setMaxVisitDuration(Duration.ofMinutes(15));
+        BadRequestException exception = assertThrowsExactly(BadRequestException.class,
+                () -> visitService.createVisit(createRequest()));
+        assertEquals("Visit must not be longer than 15 minutes", exception.getMessage());
+        verifyNoInteractions(lookupService, visitRepository);
+    }
+
     @Test
     void createVisitWithDoctorNotFoundExceptionTest() {
         ResourceNotFoundException exception = assertThrowsExactly(ResourceNotFoundException.class,
@@ -86,35 +210,127 @@ class VisitServiceTest {
 
     @Test
     void createVisitWithPatientNotFoundExceptionTest() {
-        when(doctorRepository.findById(2L)).thenReturn(of(createDoctor()));
+        when(lookupService.findDoctor(2L)).thenReturn(of(createDoctorInfo()));
         ResourceNotFoundException exception = assertThrowsExactly(ResourceNotFoundException.class,
                 () -> visitService.createVisit(createRequest()));
         assertEquals("Patient not found", exception.getMessage());
     }
 
+    @Test
+    void createVisitConcurrentlyForOneDoctorTest() throws InterruptedException {
+        stubLookups();
+        List<Visit> bookedVisits = new ArrayList<>();
+        when(visitRepository.existsBookedVisit(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(Duration.class), any(Long.class)))
+                .thenAnswer(invocation -> !bookedVisits.isEmpty());
+        when(visitRepository.save(any(Visit.class))).thenAnswer(invocation -> {
+            Thread.sleep(1);
+            bookedVisits.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        int threads = 32;
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        visitService.createVisit(createRequest());
+                        booked.incrementAndGet();
+                    } catch (BadRequestException exception) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+        assertEquals(1, booked.get());
+        assertEquals(threads - 1, rejected.get());
+        assertEquals(1, bookedVisits.size());
+    }
+
+    @Test
+    void createVisitsTest() {
+        when(doctorRepository.findAllByIdForUpdate(Set.of(2L))).thenReturn(List.of(createDoctor()));
+        when(patientRepository.findAllById(Set.of(1L, 3L))).thenReturn(List.of(createPatient(1L, "Jane", "Marry")));
+        when(visitRepository.findIntervals(Set.of(2L), of(2025, 2, 19, 8, 0, 0), of(2025, 2, 20, 8, 0, 0),
+                of(2025, 2, 20, 8, 30, 0)))
+                .thenReturn(List.of());
+        VisitRequest missingPatientRequest = createRequest();
+        missingPatientRequest.setPatientId(3L);
+        List<VisitBatchItemResponse> responses = visitService.createVisits(
+                List.of(createRequest(), createRequest(), missingPatientRequest));
+        assertEquals(List.of(BOOKED, CONFLICT, NOT_FOUND),
+                responses.stream().map(VisitBatchItemResponse::status).toList());
+        assertEquals("Marry", responses.getFirst().visit().patientLastName());
+        assertEquals("Patient not found", responses.getLast().message());
+        assertEquals(1, meterRegistry.get("visits.errors").tag("type", "conflict").counter().count());
+        assertEquals(1, meterRegistry.get("visits.errors").tag("type", "not_found").counter().count());
+        verify(visitRepository).saveAll(argThat((List<Visit> visits) -> visits.size() == 1));
+        verify(doctorPatientCounter).registerVisit(2L, 1L);
+        verify(doctorScheduleIndex).add(2L, of(2025, 2, 20, 8, 0, 0), of(2025, 2, 20, 8, 30, 0));
+    }
+
+    @Test
+    void createVisitsLongerThanMaxVisitDurationTest() {
+        visitProperties.getBooking().setMaxVisitDuration(Duration.ofHours(1));
+        when(doctorRepository.findAllByIdForUpdate(Set.of(2L))).thenReturn(List.of(createDoctor()));
+        when(patientRepository.findAllById(Set.of(1L))).thenReturn(List.of(createPatient(1L, "Jane", "Marry")));
+        when(visitRepository.findIntervals(Set.of(2L), of(2025, 2, 20, 7, 0, 0), of(2025, 2, 20, 8, 0, 0),
+                of(2025, 2, 20, 8, 30, 0)))
+                .thenReturn(List.of());
+        VisitRequest longRequest = createRequest();
+        longRequest.setEndDateTime(VisitDateTimeParser.parse("2025-02-20 12:00:00+02:00"));
+        List<VisitBatchItemResponse> responses = visitService.createVisits(List.of(longRequest, createRequest()));
+        assertEquals(List.of(INVALID, BOOKED), responses.stream().map(VisitBatchItemResponse::status).toList());
+        assertEquals("Visit must not be longer than 60 minutes", responses.getFirst().message());
+        verify(visitRepository).saveAll(argThat((List<Visit> visits) -> visits.size() == 1));
+    }
+
+    @Test
+    void createVisitsConflictingWithStoredVisitTest() {
+        when(doctorRepository.findAllByIdForUpdate(Set.of(2L))).thenReturn(List.of(createDoctor()));
+        when(patientRepository.findAllById(Set.of(1L))).thenReturn(List.of(createPatient(1L, "Jane", "Marry")));
+        when(visitRepository.findIntervals(Set.of(2L), of(2025, 2, 19, 8, 0, 0), of(2025, 2, 20, 8, 0, 0),
+                of(2025, 2, 20, 8, 30, 0)))
+                .thenReturn(List.of(new VisitInterval(2L, of(2025, 2, 20, 8, 15, 0), of(2025, 2, 20, 8, 45, 0))));
+        List<VisitBatchItemResponse> responses = visitService.createVisits(List.of(createRequest()));
+        assertEquals(CONFLICT, responses.getFirst().status());
+        assertEquals("Doctor is already booked for this time", responses.getFirst().message());
+        verifyNoInteractions(doctorPatientCounter, doctorScheduleIndex, eventPublisher);
+    }
+
     @Test
     void getAllPatientsWithVisitsTest() {
         Pageable pageable = PageRequest.of(0, 2);
-        when(patientRepository.findAllPatients(pageable)).thenReturn(new PageImpl<>(createPatientsWithVisits()));
+        when(patientRepository.findAllIds(pageable)).thenReturn(new PageImpl<>(List.of(1L, 2L)));
         List<Long> doctorIds = List.of(2L);
-        when(visitRepository.findAllDoctors()).thenReturn(doctorIds);
-        Page<PatientResponse> responsePage = visitService.getPatientsWithVisits(0, 2, "", doctorIds);
+        when(visitRepository.findRowsByPatientIdsAndDoctorIds(List.of(1L, 2L), doctorIds))
+                .thenReturn(createVisitRowsOfPatients());
+        when(doctorPatientCounter.getTotalPatients(Set.of(2L))).thenReturn(Map.of(2L, 1L));
+        Page<PatientResponse> responsePage = visitService.getPatientsWithVisits(0, 2, "", EXACT, doctorIds);
         assertEquals(2, responsePage.getTotalElements());
         assertEquals(1, responsePage.getTotalPages());
         PatientDto firstPatientDto = responsePage.getContent().getFirst().getPatientDtos().getLast();
         assertEquals("Sam", firstPatientDto.patientFirstName());
         assertEquals("Elliot", firstPatientDto.patientLastName());
-
+        assertEquals(createVisitRowsOfPatients().size(),
+                meterRegistry.get("visits.patients.rows").summary().totalAmount());
     }
 
     @Test
     void getPatientsWithVisitsTest() {
         Pageable pageable = PageRequest.of(0, 2);
-        when(patientRepository.findByFirstNameIgnoreCase("Jane", pageable))
-                .thenReturn(new PageImpl<>(List.of(createPatientsWithVisits().getFirst())));
+        when(patientRepository.findIdsByLastNameIgnoreCase("Jane", pageable))
+                .thenReturn(new PageImpl<>(List.of(1L)));
         List<Long> doctorIds = List.of(2L);
-        when(visitRepository.findAllDoctors()).thenReturn(doctorIds);
-        Page<PatientResponse> responsePage = visitService.getPatientsWithVisits(0, 2, "Jane", doctorIds);
+        when(visitRepository.findRowsByPatientIdsAndDoctorIds(List.of(1L), doctorIds))
+                .thenReturn(List.of(createVisitRowsOfPatients().getFirst()));
+        when(doctorPatientCounter.getTotalPatients(Set.of(2L))).thenReturn(Map.of(2L, 1L));
+        Page<PatientResponse> responsePage = visitService.getPatientsWithVisits(0, 2, "Jane", EXACT, doctorIds);
         assertEquals(1, responsePage.getTotalElements());
         assertEquals(1, responsePage.getTotalPages());
         PatientDto lastPatientDto = responsePage.getContent().getFirst().getPatientDtos().getFirst();
@@ -125,11 +341,11 @@ class VisitServiceTest {
     @Test
     void getPatientsWithVisitsForAllDoctorsTest() {
         Pageable pageable = PageRequest.of(0, 2);
-        when(patientRepository.findByFirstNameIgnoreCase("Jane", pageable))
-                .thenReturn(new PageImpl<>(createPatientsWithVisits()));
-        List<Long> doctorIds = List.of(2L);
-        when(visitRepository.findAllDoctors()).thenReturn(doctorIds);
-        Page<PatientResponse> responsePage = visitService.getPatientsWithVisits(0, 2, "Jane", List.of());
+        when(patientRepository.findIdsByLastNameIgnoreCase("Jane", pageable))
+                .thenReturn(new PageImpl<>(List.of(1L, 2L)));
+        when(visitRepository.findRowsByPatientIds(List.of(1L, 2L))).thenReturn(createVisitRowsOfPatients());
+        when(doctorPatientCounter.getTotalPatients(Set.of(2L))).thenReturn(Map.of(2L, 1L));
+        Page<PatientResponse> responsePage = visitService.getPatientsWithVisits(0, 2, "Jane", EXACT, List.of());
         assertEquals(2, responsePage.getTotalElements());
         assertEquals(1, responsePage.getTotalPages());
         PatientDto lastPatientDto = responsePage.getContent().getFirst().getPatientDtos().getFirst();
@@ -137,9 +353,111 @@ class VisitServiceTest {
         assertEquals("Marry", lastPatientDto.patientLastName());
     }
 
+    @Test
+    void getPatientsWithoutMatchingVisitsTest() {
+        Pageable pageable = PageRequest.of(0, 2);
+        when(patientRepository.findAllIds(pageable)).thenReturn(new PageImpl<>(List.of(1L, 2L)));
+        when(visitRepository.findRowsByPatientIdsAndDoctorIds(List.of(1L, 2L), List.of(3L))).thenReturn(List.of());
+        when(doctorPatientCounter.getTotalPatients(Set.of())).thenReturn(Map.of());
+        Page<PatientResponse> responsePage = visitService.getPatientsWithVisits(0, 2, "", EXACT, List.of(3L));
+        assertEquals(2, responsePage.getTotalElements());
+        assertTrue(responsePage.getContent().getFirst().getPatientDtos().isEmpty());
+    }
+
+    @Test
+    void getPatientsWithVisitsByCursorTest() {
+        when(patientRepository.findIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(visitRepository.findRowsByPatientIds(List.of(1L)))
+                .thenReturn(List.of(createVisitRowsOfPatients().getFirst()));
+        when(doctorPatientCounter.getTotalPatients(Set.of(2L))).thenReturn(Map.of(2L, 1L));
+        PatientCursorResponse firstPage = visitService.getPatientsWithVisits("", 1, "", EXACT, List.of());
+        assertEquals(1, firstPage.count());
+        assertEquals("Jane", firstPage.patientDtos().getFirst().patientFirstName());
+        assertNotNull(firstPage.nextCursor());
+
+        when(patientRepository.findIdsAfter(1L, PageRequest.of(0, 2))).thenReturn(List.of(2L));
+        when(visitRepository.findRowsByPatientIds(List.of(2L)))
+                .thenReturn(List.of(createVisitRowsOfPatients().getLast()));
+        PatientCursorResponse lastPage = visitService.getPatientsWithVisits(firstPage.nextCursor(), 1, "", EXACT,
+                List.of());
+        assertEquals("Sam", lastPage.patientDtos().getFirst().patientFirstName());
+        assertNull(lastPage.nextCursor());
+    }
+
+    @Test
+    void getPatientsWithVisitsByPrefixTest() {
+        when(patientNameIndex.isReady()).thenReturn(true);
+        when(patientNameIndex.find("ma", PREFIX, 0L, 10_000)).thenReturn(List.of(1L, 2L, 5L));
+        when(visitRepository.findRowsByPatientIds(List.of(1L, 2L))).thenReturn(createVisitRowsOfPatients());
+        when(doctorPatientCounter.getTotalPatients(Set.of(2L))).thenReturn(Map.of(2L, 1L));
+        Page<PatientResponse> responsePage = visitService.getPatientsWithVisits(0, 2, "ma", PREFIX, List.of());
+        assertEquals(3, responsePage.getTotalElements());
+        assertEquals(2, responsePage.getTotalPages());
+        assertEquals(2, responsePage.getContent().getFirst().getPatientDtos().size());
+        verify(patientRepository, never()).findIdsByLastNameIgnoreCase(any(String.class), any(Pageable.class));
+    }
+
+    @Test
+    void getPatientsWithVisitsByFuzzyCursorTest() {
+        when(patientNameIndex.isReady()).thenReturn(true);
+        when(patientNameIndex.find("mary", FUZZY, 1L, 2)).thenReturn(List.of(2L, 5L));
+        when(visitRepository.findRowsByPatientIds(List.of(2L)))
+                .thenReturn(List.of(createVisitRowsOfPatients().getLast()));
+        when(doctorPatientCounter.getTotalPatients(Set.of(2L))).thenReturn(Map.of(2L, 1L));
+        PatientCursorResponse page = visitService.getPatientsWithVisits(PatientCursor.encode(1L), 1, "mary", FUZZY,
+                List.of());
+        assertEquals("Sam", page.patientDtos().getFirst().patientFirstName());
+        assertEquals(PatientCursor.encode(2L), page.nextCursor());
+    }
+
+    @Test
+    void getPatientsWithVisitsByPrefixBeforeIndexIsReadyTest() {
+        Pageable pageable = PageRequest.of(0, 2);
+        when(patientSearchRepository.findIdsByNamePrefixes("ma_", pageable))
+                .thenReturn(new PageImpl<>(List.of(1L, 2L), pageable, 2));
+        when(visitRepository.findRowsByPatientIds(List.of(1L, 2L))).thenReturn(createVisitRowsOfPatients());
+        when(doctorPatientCounter.getTotalPatients(Set.of(2L))).thenReturn(Map.of(2L, 1L));
+        Page<PatientResponse> responsePage = visitService.getPatientsWithVisits(0, 2, "ma_", FUZZY, List.of());
+        assertEquals(2, responsePage.getTotalElements());
+        verify(patientNameIndex, never()).find(any(String.class), any(PatientMatch.class), anyLong(), anyInt());
+    }
+
+    @Test
+    void getPatientsWithVisitsWithInvalidPageSizeTest() {
+        BadRequestException exception = assertThrowsExactly(BadRequestException.class,
+                () -> visitService.getPatientsWithVisits("", 0, "", EXACT, List.of()));
+        assertEquals("Page size must be between 1 and 100", exception.getMessage());
+        assertThrowsExactly(BadRequestException.class,
+                () -> visitService.getPatientsWithVisits("", Integer.MAX_VALUE, "", EXACT, List.of()));
+        assertThrowsExactly(BadRequestException.class,
+                () -> visitService.getPatientsWithVisits(0, 101, "", EXACT, List.of()));
+        assertThrowsExactly(BadRequestException.class,
+                () -> visitService.getPatientsWithVisits(-1, 10, "", EXACT, List.of()));
+        verifyNoInteractions(patientRepository, visitRepository);
+    }
+
+    @Test
+    void getPatientsWithVisitsByInvalidCursorTest() {
+        BadRequestException exception = assertThrowsExactly(BadRequestException.class,
+                () -> visitService.getPatientsWithVisits("not-a-cursor", 1, "", EXACT, List.of()));
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
     private static VisitRequest createRequest() {
-        return new VisitRequest("2025-02-20 10:00:00+02:00",
-                "2025-02-20 10:30:00+02:00", 1L, 2L);
+        return new VisitRequest(VisitDateTimeParser.parse("2025-02-20 10:00:00+02:00"),
+                VisitDateTimeParser.parse("2025-02-20 10:30:00+02:00"), 1L, 2L);
+    }
+
+    private void stubLookups() {
+        when(lookupService.findDoctor(2L)).thenReturn(of(createDoctorInfo()));
+        when(lookupService.findPatient(1L)).thenReturn(of(new PatientInfo(1L, "Jane", "Marry")));
+        if (visitProperties.getBooking().isDatabaseLock()) {
+            when(doctorRepository.findByIdForUpdate(2L)).thenReturn(of(createDoctor()));
+        }
+    }
+
+    private static DoctorInfo createDoctorInfo() {
+        return new DoctorInfo(2L, "John", "Torry", ZoneId.of("UTC"));
     }
 
     private static Doctor createDoctor() {
@@ -159,26 +477,11 @@ class VisitServiceTest {
         return patient;
     }
 
-    private static List<Patient> createPatientsWithVisits() {
-        Patient patient1 = createPatient(1L, "Jane", "Marry");
-        Visit visit1 = createVisit(of(2025, 2, 20, 10, 0, 0),
-                of(2025, 2, 20, 10, 30, 0));
-        patient1.setVisits(List.of(visit1));
-        Patient patient2 = createPatient(2L, "Sam", "Elliot");
-        Visit visit2 = createVisit(of(2025, 3, 10, 10, 0, 0),
-                of(2025, 3, 10, 10, 30, 0));
-        patient2.setVisits(List.of(visit2));
-        return List.of(patient1, patient2);
-    }
-
-    private static Visit createVisit(LocalDateTime startDateTime, LocalDateTime endDateTime) {
-        Visit visit = new Visit();
-        visit.setDoctor(createDoctor());
-        visit.setStartDateTime(startDateTime);
-        visit.setEndDateTime(endDateTime);
-        visit.setStartDateTime(of(2025, 2, 20, 10, 0, 0));
-        visit.setEndDateTime(of(2025, 2, 20, 10, 30, 0));
-        return visit;
+    private static List<VisitRow> createVisitRowsOfPatients() {
+        return List.of(new VisitRow(1L, "Jane", "Marry", of(2025, 2, 20, 10, 0, 0), of(2025, 2, 20, 10, 30, 0), 2L,
+                        "John", "Torry"),
+                new VisitRow(2L, "Sam", "Elliot", of(2025, 3, 10, 10, 0, 0), of(2025, 3, 10, 10, 30, 0), 2L, "John",
+                        "Torry"));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+-- Query plans and timings for the hot access paths covered by V4__add_access_path_indexes.sql.
+-- Run against a database seeded by V2__insert_data.sql, once migrated with spring.flyway.target=3
+-- and once with spring.flyway.target=4, through scripts/capture-access-path-plans.sh before|after.
+-- The script writes access-path-query-plans.before.txt and access-path-query-plans.after.txt next
+-- to this file. The last_name_lower statements only apply after V4.
+
+SET @doctor_id = (SELECT doctor_id FROM visits GROUP BY doctor_id ORDER BY COUNT(*) DESC LIMIT 1);
+SET @start_date_time = (SELECT MIN(start_date_time) FROM visits WHERE doctor_id = @doctor_id);
+SET @end_date_time = @start_date_time + INTERVAL 30 MINUTE;
+SET @search = 'lastname1';
+
+-- existsBookedVisit
+EXPLAIN ANALYZE
+SELECT v.id FROM visits v
+WHERE v.doctor_id = @doctor_id AND v.start_date_time <= @end_date_time AND v.end_date_time >= @start_date_time
+LIMIT 1;
+
+-- DoctorPatientCounter.rebuild
+EXPLAIN ANALYZE
+SELECT DISTINCT doctor_id, patient_id FROM visits;
+
+-- findIdsByLastNameIgnoreCase, before V4
+EXPLAIN ANALYZE
+SELECT p.id FROM patients p WHERE LOWER(p.last_name) = LOWER(@search) ORDER BY p.id LIMIT 10;
+
+-- findIdsByLastNameIgnoreCase, after V4
+EXPLAIN ANALYZE
+SELECT p.id FROM patients p WHERE p.last_name_lower = LOWER(@search) ORDER BY p.id LIMIT 10;
+
+EXPLAIN ANALYZE
+SELECT COUNT(p.id) FROM patients p WHERE p.last_name_lower = LOWER(@search);
+
+-- findByPatientIdsAndDoctorIds
+EXPLAIN ANALYZE
+SELECT v.*, p.*, d.* FROM visits v
+    JOIN patients p ON p.id = v.patient_id
+    JOIN doctors d ON d.id = v.doctor_id
+WHERE v.patient_id IN (1, 2, 3, 4, 5, 6, 7, 8, 9, 10) AND v.doctor_id IN (20, 25, 30);